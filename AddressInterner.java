@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+/**
+ * Maps each distinct address to a dense int id, handed out in order of first appearance from 0.
+ * Ids can be translated back to their addresses whenever output is needed.
+ * The index is an open-addressing hash table (linear probing) of ids, so lookups allocate nothing.
+ * @author Aidan Emden
+ */
+
+public class AddressInterner {
+
+	/**
+	 * The address of each id.
+	 */
+	private String[] names;
+
+	/**
+	 * The number of ids handed out.
+	 */
+	private int size;
+
+	/**
+	 * The hash table: each cell holds an id plus one, or 0 when the cell is empty.
+	 */
+	private int[] table;
+
+	/**
+	 * Constructor for an empty interner.
+	 */
+	public AddressInterner(){
+		names = new String[64];
+		table = new int[128];
+		size = 0;
+	}
+
+	//O(1) expected
+
+	/**
+	 * Returns the id of an address, handing out the next id if it is new.
+	 *
+	 * @param addr the address
+	 * @return the id of the address
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public int intern(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		int cell = find(addr);
+		if (table[cell] != 0) {
+			return table[cell] - 1;
+		}
+
+		if (size == names.length) {
+			names = Arrays.copyOf(names, size * 2);
+		}
+		names[size] = addr;
+		table[cell] = size + 1;
+		size++;
+		//keep the table at most half full
+		if (2 * size > table.length) {
+			rehash(table.length * 2);
+		}
+		return size - 1;
+	}
+
+	//O(1) expected
+
+	/**
+	 * Returns the id of an address without handing out a new one.
+	 *
+	 * @param addr the address
+	 * @return the id of the address, or -1 if it has none
+	 */
+	public int idOf(String addr){
+		if (addr == null) {
+			return -1;
+		}
+		return table[find(addr)] - 1;
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the address of an id.
+	 *
+	 * @param id the id
+	 * @return the address the id was handed out for
+	 * @throws IndexOutOfBoundsException if the id was not handed out
+	 */
+	public String nameOf(int id){
+		if (id < 0 || id >= size) {
+			throw new IndexOutOfBoundsException("No address with id " + id);
+		}
+		return names[id];
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the number of ids handed out, which is one more than the largest id.
+	 *
+	 * @return the number of distinct addresses
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Returns the cell holding an address, or the empty cell ending its probe sequence.
+	 *
+	 * @param addr the address
+	 * @return the cell of the address if present, otherwise the empty cell where it would go
+	 */
+	private int find(String addr){
+		int mask = table.length - 1;
+		int cell = home(addr, mask);
+		while (table[cell] != 0 && !names[table[cell] - 1].equals(addr)) {
+			cell = (cell + 1) & mask;
+		}
+		return cell;
+	}
+
+	/**
+	 * Rebuilds the hash table with a new length.
+	 *
+	 * @param length the new table length, a power of two
+	 */
+	private void rehash(int length){
+		table = new int[length];
+		int mask = length - 1;
+		for (int id = 0; id < size; id++) {
+			int cell = home(names[id], mask);
+			while (table[cell] != 0) {
+				cell = (cell + 1) & mask;
+			}
+			table[cell] = id + 1;
+		}
+	}
+
+	/**
+	 * Returns the home cell of an address.
+	 *
+	 * @param addr the address
+	 * @param mask the table length minus one
+	 * @return the cell the probe sequence of addr starts at
+	 */
+	private static int home(String addr, int mask){
+		int h = addr.hashCode();
+		return (h ^ (h >>> 16)) & mask;
+	}
+}
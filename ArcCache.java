@@ -0,0 +1,269 @@
+/**
+ * Cache implementing ARC (Adaptive Replacement Cache) replacement policy in constant time per access.
+ * Resident addresses are split between T1, those seen once recently, and T2, those seen at least twice.
+ * The ghost lists B1 and B2 remember the addresses recently evicted from T1 and T2 (without their data).
+ * A miss that finds its address in B1 means T1 was too small, so the target size p of T1 grows;
+ * one found in B2 shrinks it. Evictions then take from T1 or T2 to move toward p, so the cache
+ * adapts between recency and frequency as the workload changes, and a scan only ever flushes T1.
+ * All four lists are RecencyLists, so every step is O(1).
+ * (Megiddo and Modha, "ARC: A Self-Tuning, Low Overhead Replacement Cache", FAST 2003.)
+ * @author Aidan Emden
+ */
+
+public class ArcCache implements CountingCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The number of items stored since the cache was created.
+	 */
+	private long insertions;
+
+	/**
+	 * The number of items evicted since the cache was created.
+	 */
+	private long evictions;
+
+	/**
+	 * The target size of T1, from 0 to capacity.
+	 */
+	private int target;
+
+	/**
+	 * Resident addresses seen once recently, ordered from LRU to MRU.
+	 */
+	private RecencyList t1;
+
+	/**
+	 * Resident addresses seen at least twice recently, ordered from LRU to MRU.
+	 */
+	private RecencyList t2;
+
+	/**
+	 * Addresses recently evicted from T1, ordered from LRU to MRU.
+	 */
+	private RecencyList b1;
+
+	/**
+	 * Addresses recently evicted from T2, ordered from LRU to MRU.
+	 */
+	private RecencyList b2;
+
+	/**
+	 * Constructor for a cache with capacity as cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public ArcCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		capacity = cap;
+		target = 0;
+		t1 = new RecencyList();
+		t2 = new RecencyList();
+		b1 = new RecencyList();
+		b2 = new RecencyList();
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size() == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return t1.size() + t2.size();
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return insertions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the current target size of T1.
+	 *
+	 * @return the target size of T1, from 0 to capacity
+	 */
+	public int getTarget(){
+		return target;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss on an address not in a ghost list.
+	 * A miss found in B2 may instead evict from T1 when T1 is exactly at its target size.
+	 *
+	 * @return item that will be evicted if the next access is a miss. Return null if the cache is empty
+	 */
+	public String nextToReplace(){
+		if (t1.size() + b1.size() == capacity && t1.size() == capacity) {
+			return t1.getFirst();
+		}
+		return replaceCandidate(false);
+	}
+
+	//O(1)
+
+	/**
+	 * This is the method that accepts the addr as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+
+		//hit: promote to the frequency side
+		if (t1.remove(addr)) {
+			t2.addLast(addr);
+			return true;
+		}
+		if (t2.touch(addr)) {
+			return true;
+		}
+
+		//ghost hit in B1: recency deserves more room
+		if (b1.contains(addr)) {
+			target = Math.min(capacity, target + Math.max(b2.size() / b1.size(), 1));
+			replace(false);
+			b1.remove(addr);
+			t2.addLast(addr);
+			insertions++;
+			return false;
+		}
+
+		//ghost hit in B2: frequency deserves more room
+		if (b2.contains(addr)) {
+			target = Math.max(0, target - Math.max(b1.size() / b2.size(), 1));
+			replace(true);
+			b2.remove(addr);
+			t2.addLast(addr);
+			insertions++;
+			return false;
+		}
+
+		//a new address
+		int l1 = t1.size() + b1.size();
+		if (l1 == capacity) {
+			if (t1.size() < capacity) {
+				b1.removeFirst();
+				replace(false);
+			}
+			else {
+				t1.removeFirst();
+				evictions++;
+			}
+		}
+		else if (l1 + t2.size() + b2.size() >= capacity) {
+			if (l1 + t2.size() + b2.size() == 2 * capacity) {
+				b2.removeFirst();
+			}
+			replace(false);
+		}
+		t1.addLast(addr);
+		insertions++;
+		return false;
+	}
+
+	//O(1)
+
+	/**
+	 * Evicts the LRU address of T1 into B1 if T1 is above its target, otherwise the LRU address of T2 into B2.
+	 *
+	 * @param inB2 whether the missing address was found in B2
+	 */
+	private void replace(boolean inB2){
+		String victim = replaceCandidate(inB2);
+		if (victim == null || !isFull()) {
+			return;
+		}
+		if (t1.remove(victim)) {
+			b1.addLast(victim);
+		}
+		else {
+			t2.remove(victim);
+			b2.addLast(victim);
+		}
+		evictions++;
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the address replace would evict.
+	 *
+	 * @param inB2 whether the missing address was found in B2
+	 * @return the LRU address of T1 or T2, or null if the cache is empty
+	 */
+	private String replaceCandidate(boolean inB2){
+		int size1 = t1.size();
+		if (size1 > 0 && ((inB2 && size1 == target) || size1 > target || t2.size() == 0)) {
+			return t1.getFirst();
+		}
+		return t2.getFirst();
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache, T1 then T2, each from LRU to MRU.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		return "T1: " + t1.listToString() + " | T2: " + t2.listToString();
+	}
+}
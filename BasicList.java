@@ -1,6 +1,8 @@
 import java.util.Iterator;
 /**
- * BasicList class is a singly linked list that does not use dummy nodes.
+ * BasicList class is a doubly linked list that does not use dummy nodes.
+ * It keeps a reference to its last node and a live count of its nodes, so size, addFirst, addLast,
+ * getFirst, getLast, removeFirst and removeLast are all O(1).
  * It provides basic operations such as addFirst, addLast, removeFirst, removeLast, remove, indexOf, and listToString.
  * It also provides methods to move a node to the front, to the back, forward, or backward.
  * @author Aidan Emden
@@ -14,6 +16,16 @@ public class BasicList<T> implements Iterable<T> {
 	 */
 	protected Node<T> head = null;  
 
+	/**
+	 * The tail of the list.
+	 */
+	protected Node<T> tail = null;
+
+	/**
+	 * The number of nodes in the list.
+	 */
+	protected int size = 0;
+
 	/**
 	 * Iterator for the list.
 	 * 
@@ -53,6 +65,8 @@ public class BasicList<T> implements Iterable<T> {
 	 */
 	public BasicList(){
 		this.head = null;
+		this.tail = null;
+		this.size = 0;
 	}
 	
 	// report number of items
@@ -65,12 +79,6 @@ public class BasicList<T> implements Iterable<T> {
 	 */
 
 	public int size(){
-		int size = 0;
-		Node<T> current = head;
-		while(current != null){
-			size++;
-			current = current.getNext();
-		}
 		return size;
 	}
 	
@@ -108,9 +116,7 @@ public class BasicList<T> implements Iterable<T> {
 		if(value == null){
 			throw new IllegalArgumentException("Value cannot be null.");
 		} else {
-			Node<T> newNode = new Node<T>(value);
-			newNode.setNext(head);
-			head = newNode;
+			insertAfter(null, new Node<T>(value));
 		}
 	}
 	
@@ -127,9 +133,9 @@ public class BasicList<T> implements Iterable<T> {
 		if(head == null){
 			return null;
 		} else {
-			T value = head.getData();
-			head = head.getNext();
-			return value;
+			Node<T> first = head;
+			unlink(first);
+			return first.getData();
 		}
 	}
 
@@ -145,15 +151,10 @@ public class BasicList<T> implements Iterable<T> {
 	 */
 
 	public T getLast() {
-		if(head == null){
+		if(tail == null){
 			return null;
 		}
-
-		Node<T> current = head;
-		while(current.getNext() != null){
-			current = current.getNext();
-		}
-		return current.getData();
+		return tail.getData();
 	}
 	
 
@@ -169,29 +170,17 @@ public class BasicList<T> implements Iterable<T> {
 	 */
 
 	public void addLast(T value) {	
-		Node<T> newNode = new Node<T>(value);
-
 		if(value == null){
 			throw new IllegalArgumentException("Value cannot be null.");
 		}
-		
-		if(head == null){
-			head = newNode;
-			return;
-		}
-			
-		Node<T> current = head;
-		while(current.getNext() != null){
-			current = current.getNext();
-		}
-		current.setNext(newNode);
+		insertAfter(tail, new Node<T>(value));
 	}
 	
 
 	
 	// remove and return the last value from the end of the list
 	//return null if list is empty
-	// O(n) where n is the number of items in list
+	// O(1)
 
 	/**
 	 * Returns the last value from the end of the list.
@@ -200,22 +189,12 @@ public class BasicList<T> implements Iterable<T> {
 	 */
 	
 	public T removeLast() {
-		if(head == null){
+		if(tail == null){
 			return null;
 		}
-
-		Node<T> current = head;
-		Node<T> previous = null;
-		while(current.getNext() != null){
-			previous = current;
-			current = current.getNext();
-		}
-		if(previous == null){
-			head = null;
-		} else {
-			previous.setNext(null);
-		}
-		return current.getData();
+		Node<T> last = tail;
+		unlink(last);
+		return last.getData();
 	}
 	
 	//remove and return the first occurence of value 
@@ -232,26 +211,16 @@ public class BasicList<T> implements Iterable<T> {
 	 */
 
 	public T remove(T value){
-		if(value == null || head == null){
+		if(value == null){
 			return null;
 		}
 	
-		Node<T> current = head;
-		Node<T> previous = null;
-	
-		while(current != null){
-			if(current.getData().equals(value)){
-				if(previous != null){
-					previous.setNext(current.getNext());
-				} else {
-					head = current.getNext();
-				}
-				return current.getData(); 
-			}
-			previous = current;
-			current = current.getNext();
+		Node<T> current = getNode(value);
+		if(current == null){
+			return null;
 		}
-		return null;
+		unlink(current);
+		return current.getData();
 	}
 
 	//return the index of the first occurence of value 
@@ -354,21 +323,15 @@ public class BasicList<T> implements Iterable<T> {
 			return false;
 		}
 
-		Node<T> current = head;
-		Node<T> previous = null;
-		while(current != null){
-			if(current.getData().equals(value)){
-				if(previous != null){
-					previous.setNext(current.getNext());
-					current.setNext(head);
-					head = current;
-				}
-				return true;
-			}
-			previous = current;
-			current = current.getNext();
+		Node<T> current = getNode(value);
+		if(current == null){
+			return false;
 		}
-		return false;
+		if(current != head){
+			unlink(current);
+			insertAfter(null, current);
+		}
+		return true;
 	}
 	
 	//find the first node that contains the given value, 
@@ -399,26 +362,14 @@ public class BasicList<T> implements Iterable<T> {
 			return true;
 		}
 
-		Node<T> previousPrevious = null;
-    	Node<T> previous = head;
-    	Node<T> current = head.getNext();
-
-    	while(current != null){
-        	if(current.getData().equals(value)){
-            	if (previousPrevious != null) {
-                	previousPrevious.setNext(current);
-				} else {
-					head = current;
-				}
-				previous.setNext(current.getNext());
-            	current.setNext(previous);
-            	return true;
-        	}
-			previousPrevious = previous;
-        	previous = current;
-        	current = current.getNext();
+		Node<T> current = getNode(value);
+		if(current == null){
+			return false;
 		}
-		return false;
+		Node<T> previous = current.getPrev();
+		unlink(current);
+		insertAfter(previous.getPrev(), current);
+		return true;
 	}
 	
 	//find the first node that contains the given value, and move the node to the end of list
@@ -442,40 +393,14 @@ public class BasicList<T> implements Iterable<T> {
 			return false;
 		}
 
-		Node<T> current = head;
-		Node<T> previous = null;
-		Node<T> toMove = null;
-		Node<T> previousToMove = null;
-		
-		while(current != null){
-			if(current.getData().equals(value)){
-				toMove = current;
-				previousToMove = previous;
-			}
-			previous = current;
-			current = current.getNext();
-		}
+		Node<T> toMove = getNode(value);
 		if(toMove == null){
 			return false;
 		}
-
-		if(toMove.getNext() == null){
-			return true; 
-		}
-
-		if (toMove == head) {
-			head = toMove.getNext(); 
-		} else {
-			previousToMove.setNext(toMove.getNext());
+		if(toMove != tail){
+			unlink(toMove);
+			insertAfter(tail, toMove);
 		}
-
-		current = head;
-		while (current.getNext() != null) {
-			current = current.getNext();
-		}
-		current.setNext(toMove);
-		toMove.setNext(null);
-
 		return true;
 	}
 	
@@ -498,28 +423,75 @@ public class BasicList<T> implements Iterable<T> {
 	 */
 
 	public boolean moveBackward(T value){
-		if(value == null || head == null){
+		if(value == null){
 			return false;
 		}
 
-		Node<T> previous = head;
-    	Node<T> current = head.getNext();
+		Node<T> current = getNode(value);
+		if(current == null){
+			return false;
+		}
+		if(current != tail){
+			Node<T> following = current.getNext();
+			unlink(current);
+			insertAfter(following, current);
+		}
+		return true;
+	}
 
-   		while(current != null && current.getNext() != null){
-			if(current.getData().equals(value)){
-            	previous.setNext(current.getNext());
-            	current.setNext(current.getNext().getNext());
-            	previous.getNext().setNext(current);
-            	return true;
-        	}
-			previous = current;
-        	current = current.getNext();
+	//link a detached node right after previous, or at the start of the list if previous is null
+	// - keeps head, tail and size up to date; used by SortedList as well
+	//O(1)
+
+	/**
+	 * Links a detached node right after a node of this list.
+	 * 
+	 * @param previous the node to link after, or null to link at the start of the list
+	 * @param node the detached node to link
+	 */
+
+	protected void insertAfter(Node<T> previous, Node<T> node){
+		Node<T> following = (previous == null) ? head : previous.getNext();
+		node.setPrev(previous);
+		node.setNext(following);
+		if(previous == null){
+			head = node;
+		} else {
+			previous.setNext(node);
 		}
-    	if (current != null && current.getData().equals(value)) {
-        	return true;
-    	}
+		if(following == null){
+			tail = node;
+		} else {
+			following.setPrev(node);
+		}
+		size++;
+	}
 
-    	return false;
+	//detach a node of this list, keeping head, tail and size up to date
+	//O(1)
+
+	/**
+	 * Detaches a node from the list.
+	 * 
+	 * @param node the node to detach
+	 */
+
+	private void unlink(Node<T> node){
+		Node<T> previous = node.getPrev();
+		Node<T> following = node.getNext();
+		if(previous == null){
+			head = following;
+		} else {
+			previous.setNext(following);
+		}
+		if(following == null){
+			tail = previous;
+		} else {
+			following.setPrev(previous);
+		}
+		node.setPrev(null);
+		node.setNext(null);
+		size--;
 	}
 	
 	
@@ -652,9 +624,21 @@ public class BasicList<T> implements Iterable<T> {
 		}
 	
 	
+		//end operations keep tail and size in sync
+		BasicList<String> ends = new BasicList<>();
+		ends.addLast("b");
+		ends.addFirst("a");
+		ends.addLast("c");
+		if (ends.size() == 3 && ends.getLast().equals("c") && ends.removeLast().equals("c") &&
+			ends.getLast().equals("b") && ends.moveToBack("a") && ends.getLast().equals("a") &&
+			ends.removeLast().equals("a") && ends.removeLast().equals("b") && ends.size() == 0 &&
+			ends.getLast() == null && ends.removeLast() == null){
+			System.out.println("Yay6");
+		}
+
 		//add more test cases by yourself!
 		
 		
 		
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
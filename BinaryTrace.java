@@ -0,0 +1,160 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * The compact binary trace format, and a converter from the text format.
+ * <p>
+ * A binary trace is laid out as follows; all fixed-width numbers are big-endian.
+ * <ul>
+ * <li>magic: the 4 bytes "CTRC"</li>
+ * <li>version: int, currently 1</li>
+ * <li>accesses: long, the number of accesses</li>
+ * <li>symbols: int, the number of distinct addresses</li>
+ * <li>dictionary: for each id from 0, the varint byte length and the UTF-8 bytes of its address</li>
+ * <li>blocks: each holds a varint count of accesses (at most BLOCK_SIZE) followed by that many ids,
+ *     each written as the zigzag varint of its difference from the id before it in the block
+ *     (the first one from 0)</li>
+ * </ul>
+ * Ids are handed out in order of first appearance, so nearby accesses to new addresses have small deltas.
+ * <p>
+ * Usage: java BinaryTrace TextTrace BinaryTrace
+ * @author Aidan Emden
+ */
+
+public class BinaryTrace {
+
+	/**
+	 * The magic bytes starting every binary trace.
+	 */
+	public static final byte[] MAGIC = {'C', 'T', 'R', 'C'};
+
+	/**
+	 * The version of the format written.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The largest number of accesses in one block.
+	 */
+	public static final int BLOCK_SIZE = 4096;
+
+	/**
+	 * Converts a text trace to the binary format.
+	 * The text is read twice: once to build the dictionary, once to encode the accesses.
+	 *
+	 * @param textFile the name (path to) a whitespace-separated text trace
+	 * @param binaryFile the name (path to) the binary trace to write
+	 * @return the number of accesses written
+	 * @throws IOException If an input or output exception occurred
+	 */
+	public static long convert(String textFile, String binaryFile) throws IOException {
+		AddressInterner names = new AddressInterner();
+		long accesses = 0;
+		try (TraceSource trace = new TextTraceReader(textFile)) {
+			String addr;
+			while ((addr = trace.next()) != null) {
+				names.intern(addr);
+				accesses++;
+			}
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(Paths.get(binaryFile)), 1 << 16));
+				TraceSource trace = new TextTraceReader(textFile)) {
+			writeHeader(out, accesses, names);
+			int[] block = new int[BLOCK_SIZE];
+			int count = 0;
+			String addr;
+			while ((addr = trace.next()) != null) {
+				block[count++] = names.idOf(addr);
+				if (count == BLOCK_SIZE) {
+					writeBlock(out, block, count);
+					count = 0;
+				}
+			}
+			if (count > 0) {
+				writeBlock(out, block, count);
+			}
+		}
+		return accesses;
+	}
+
+	/**
+	 * Writes the header and the dictionary of a binary trace.
+	 *
+	 * @param out the stream to write to
+	 * @param accesses the number of accesses that will follow
+	 * @param names the dictionary, whose ids are the ones the blocks will use
+	 * @throws IOException If an output exception occurred
+	 */
+	public static void writeHeader(DataOutputStream out, long accesses, AddressInterner names) throws IOException {
+		out.write(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(accesses);
+		out.writeInt(names.size());
+		for (int id = 0; id < names.size(); id++) {
+			byte[] bytes = names.nameOf(id).getBytes(StandardCharsets.UTF_8);
+			writeVarint(out, bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Writes one block of delta-encoded ids.
+	 *
+	 * @param out the stream to write to
+	 * @param ids the ids of the block
+	 * @param count the number of ids used from ids, from 1 to BLOCK_SIZE
+	 * @throws IOException If an output exception occurred
+	 */
+	public static void writeBlock(OutputStream out, int[] ids, int count) throws IOException {
+		writeVarint(out, count);
+		int previous = 0;
+		for (int i = 0; i < count; i++) {
+			int delta = ids[i] - previous;
+			writeVarint(out, (delta << 1) ^ (delta >> 31));
+			previous = ids[i];
+		}
+	}
+
+	/**
+	 * Writes an unsigned varint: 7 bits per byte, lowest first, high bit set on all but the last byte.
+	 *
+	 * @param out the stream to write to
+	 * @param value the value, read as unsigned
+	 * @throws IOException If an output exception occurred
+	 */
+	private static void writeVarint(OutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	/**
+	 * Converts a text trace given on the command line to the binary format.
+	 *
+	 * @param args the text trace and the binary trace to write
+	 */
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.out.println("Usage: java BinaryTrace TextTrace BinaryTrace");
+			return;
+		}
+		try {
+			long start = System.nanoTime();
+			long accesses = convert(args[0], args[1]);
+			System.out.format("Converted %d accesses from %s (%d bytes) to %s (%d bytes) in %.3f s.\n",
+				accesses, args[0], Files.size(Paths.get(args[0])), args[1], Files.size(Paths.get(args[1])),
+				(System.nanoTime() - start) / 1e9);
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
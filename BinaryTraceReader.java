@@ -0,0 +1,264 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * TraceSource reading a trace in the binary format described in BinaryTrace.
+ * The dictionary is loaded up front into an AddressInterner; the accesses are then
+ * decoded block by block from a fixed buffer, either as ids or as addresses.
+ * @author Aidan Emden
+ */
+
+public class BinaryTraceReader implements TraceSource {
+
+	/**
+	 * The number of bytes read from the file at a time.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The channel the trace is read from.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The buffer holding the bytes read but not decoded yet.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * The dictionary of the trace.
+	 */
+	private AddressInterner names;
+
+	/**
+	 * The number of accesses in the trace.
+	 */
+	private long accesses;
+
+	/**
+	 * The number of accesses decoded so far.
+	 */
+	private long decoded;
+
+	/**
+	 * The number of accesses left in the current block.
+	 */
+	private int blockLeft;
+
+	/**
+	 * The id of the previous access in the current block.
+	 */
+	private int previous;
+
+	/**
+	 * Constructor for a reader over the binary trace in filename.
+	 *
+	 * @param filename the name (path to) a binary trace
+	 * @throws IOException If the file cannot be opened or is not a binary trace
+	 */
+	public BinaryTraceReader(String filename) throws IOException {
+		this(Paths.get(filename));
+	}
+
+	/**
+	 * Constructor for a reader over the binary trace in path.
+	 *
+	 * @param path the path to a binary trace
+	 * @throws IOException If the file cannot be opened or is not a binary trace
+	 */
+	public BinaryTraceReader(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			buffer.flip();
+
+			byte[] magic = new byte[BinaryTrace.MAGIC.length];
+			for (int i = 0; i < magic.length; i++) {
+				magic[i] = readByte();
+			}
+			if (!Arrays.equals(magic, BinaryTrace.MAGIC)) {
+				throw new IOException("Not a binary trace: " + path);
+			}
+			int version = readInt();
+			if (version != BinaryTrace.VERSION) {
+				throw new IOException("Unsupported binary trace version " + version + ": " + path);
+			}
+			accesses = ((long)readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+			int symbols = readInt();
+
+			names = new AddressInterner();
+			byte[] bytes = new byte[64];
+			for (int id = 0; id < symbols; id++) {
+				int length = readVarint();
+				if (length > bytes.length) {
+					bytes = new byte[length];
+				}
+				for (int i = 0; i < length; i++) {
+					bytes[i] = readByte();
+				}
+				names.intern(new String(bytes, 0, length, StandardCharsets.UTF_8));
+			}
+			if (names.size() != symbols) {
+				throw new IOException("Duplicate address in dictionary: " + path);
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		decoded = 0;
+		blockLeft = 0;
+	}
+
+	/**
+	 * Returns true if the file starts with the header of a binary trace: the magic bytes, the
+	 * supported version, and a number of accesses and of dictionary entries that are not negative.
+	 * A text trace whose first address happens to start with the magic is thus still read as text.
+	 *
+	 * @param filename the name (path to) a trace file
+	 * @return true if the file is a binary trace, false if it is presumably text
+	 * @throws IOException If the file cannot be read
+	 */
+	public static boolean isBinaryTrace(String filename) throws IOException {
+		try (FileChannel file = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+			ByteBuffer head = ByteBuffer.allocate(BinaryTrace.MAGIC.length + 16);
+			while (head.hasRemaining() && file.read(head) >= 0) {
+				//keep reading until the header is complete or the file ends
+			}
+			if (head.hasRemaining()) {
+				return false;
+			}
+			head.flip();
+			byte[] magic = new byte[BinaryTrace.MAGIC.length];
+			head.get(magic);
+			return Arrays.equals(magic, BinaryTrace.MAGIC) && head.getInt() == BinaryTrace.VERSION
+					&& head.getLong() >= 0 && head.getInt() >= 0;
+		}
+	}
+
+	/**
+	 * Returns the dictionary of the trace, which translates ids back to addresses.
+	 *
+	 * @return the dictionary of the trace
+	 */
+	public AddressInterner names(){
+		return names;
+	}
+
+	/**
+	 * Returns the number of accesses in the trace, as recorded in its header.
+	 *
+	 * @return the number of accesses
+	 */
+	public long getAccesses(){
+		return accesses;
+	}
+
+	/**
+	 * Returns the id of the next access.
+	 *
+	 * @return the id of the next access, or -1 once the trace is exhausted
+	 * @throws IOException If an input exception occurred or the trace is truncated
+	 */
+	public int nextId() throws IOException {
+		if (decoded == accesses) {
+			return -1;
+		}
+		if (blockLeft == 0) {
+			blockLeft = readVarint();
+			previous = 0;
+			if (blockLeft <= 0 || blockLeft > BinaryTrace.BLOCK_SIZE) {
+				throw new IOException("Corrupt block header in binary trace.");
+			}
+		}
+		int zigzag = readVarint();
+		previous += (zigzag >>> 1) ^ -(zigzag & 1);
+		blockLeft--;
+		decoded++;
+		if (previous < 0 || previous >= names.size()) {
+			throw new IOException("Id out of dictionary in binary trace: " + previous);
+		}
+		return previous;
+	}
+
+	/**
+	 * Returns the address of the next access.
+	 *
+	 * @return the next address, or null once the trace is exhausted
+	 * @throws IOException If an input exception occurred or the trace is truncated
+	 */
+	@Override
+	public String next() throws IOException {
+		int id = nextId();
+		return id < 0 ? null : names.nameOf(id);
+	}
+
+	/**
+	 * Closes the underlying file.
+	 *
+	 * @throws IOException If the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Reads an unsigned varint.
+	 *
+	 * @return the value
+	 * @throws IOException If an input exception occurred or the trace is truncated
+	 */
+	private int readVarint() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = readByte();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint in binary trace.");
+	}
+
+	/**
+	 * Reads a big-endian int.
+	 *
+	 * @return the value
+	 * @throws IOException If an input exception occurred or the trace is truncated
+	 */
+	private int readInt() throws IOException {
+		int value = 0;
+		for (int i = 0; i < 4; i++) {
+			value = (value << 8) | (readByte() & 0xFF);
+		}
+		return value;
+	}
+
+	/**
+	 * Reads one byte, refilling the buffer when it runs out.
+	 *
+	 * @return the byte
+	 * @throws IOException If an input exception occurred or the trace is truncated
+	 */
+	private byte readByte() throws IOException {
+		if (!buffer.hasRemaining()) {
+			buffer.clear();
+			int read = 0;
+			while (read == 0) {
+				read = channel.read(buffer);
+			}
+			buffer.flip();
+			if (read < 0) {
+				throw new IOException("Unexpected end of binary trace.");
+			}
+		}
+		return buffer.get();
+	}
+}
@@ -0,0 +1,380 @@
+import java.util.HashMap;
+
+/**
+ * Cache implementing LFU replacement policy in constant time per access.
+ * Items are grouped into frequency buckets kept in a linked list in ascending order of access count.
+ * Each bucket keeps its own items from LRU to MRU, and a hash map leads from each address to its item,
+ * so hit, promote and evict are all O(1).
+ * It produces exactly the same hits, misses and output as LfuCache.
+ * @author Aidan Emden
+ */
+
+public class BucketLfuCache implements InvalidatableCache, CountingCache {
+
+    /**
+     * The Block class, one cached item linked inside its frequency bucket.
+     */
+    private static class Block {
+
+        /**
+         * The data item to store in cache.
+         */
+        private String data;
+
+        /**
+         * How many times this item is accessed since it is loaded in.
+         */
+        private int count;
+
+        /**
+         * The bucket holding all items with the same count as this one.
+         */
+        private Bucket bucket;
+
+        /**
+         * The item accessed less recently in the same bucket.
+         */
+        private Block prev;
+
+        /**
+         * The item accessed more recently in the same bucket.
+         */
+        private Block next;
+
+        /**
+         * Constructor for a block with address addr.
+         *
+         * @param addr the address of the block
+         */
+        private Block(String addr){
+            this.data = addr;
+            count = 1;
+        }
+
+        /**
+         * String representation including access count.
+         *
+         * @return the string representation of the block
+         */
+        @Override
+        public String toString(){
+            return "<"+data+","+count+">";
+        }
+    }
+
+    /**
+     * The Bucket class, all items sharing one access count from LRU to MRU.
+     */
+    private static class Bucket {
+
+        /**
+         * The access count shared by every item in this bucket.
+         */
+        private int count;
+
+        /**
+         * The least recently used item of this bucket.
+         */
+        private Block head;
+
+        /**
+         * The most recently used item of this bucket.
+         */
+        private Block tail;
+
+        /**
+         * The bucket with the next lower count.
+         */
+        private Bucket prev;
+
+        /**
+         * The bucket with the next higher count.
+         */
+        private Bucket next;
+
+        /**
+         * Constructor for an empty bucket with the given count.
+         *
+         * @param count the access count of the bucket
+         */
+        private Bucket(int count){
+            this.count = count;
+        }
+    }
+
+    /**
+     * The capacity of the cache.
+     */
+    private int capacity;
+
+    /**
+     * The number of items stored since the cache was created.
+     */
+    private long insertions;
+
+    /**
+     * The number of items evicted since the cache was created.
+     */
+    private long evictions;
+
+    /**
+     * The index from each address to its block.
+     */
+    private HashMap<String, Block> index;
+
+    /**
+     * The bucket with the lowest count.
+     */
+    private Bucket lowest;
+
+    /**
+     * Constructor for a cache with capacity as cap.
+     *
+     * @param cap the capacity of the cache
+     * @throws IllegalArgumentException if cap is not positive
+     */
+    public BucketLfuCache(int cap){
+        if(cap <= 0){
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        capacity = cap;
+        index = new HashMap<>();
+        lowest = null;
+    }
+
+    //O(1)
+
+    /**
+     * Returns true if the cache is full; false otherwise.
+     *
+     * @return true if the cache is full; false otherwise
+     */
+    @Override
+    public boolean isFull(){
+        return index.size() == capacity;
+    }
+
+    //O(1)
+
+    /**
+     * Reports max number of items allowed in cache.
+     *
+     * @return max number of items allowed in cache
+     */
+    public int capacity(){
+        return capacity;
+    }
+
+    //O(1)
+
+    /**
+     * Reports the number of items stored in cache.
+     *
+     * @return number of items stored in cache
+     */
+    public int size(){
+        return index.size();
+    }
+
+    //O(1)
+
+    /**
+     * Reports the number of items stored in cache since it was created.
+     *
+     * @return the number of insertions
+     */
+    public long insertions(){
+        return insertions;
+    }
+
+    //O(1)
+
+    /**
+     * Reports the number of items evicted from cache to make room since it was created.
+     *
+     * @return the number of evictions
+     */
+    public long evictions(){
+        return evictions;
+    }
+
+    //O(1)
+
+    /**
+     * Return item that will be evicted if the next access is a miss.
+     *
+     * @return item that will be evicted if the next access is a miss. Return null if no item will be evicted
+     */
+    public String nextToReplace(){
+        if(lowest == null){
+            return null;
+        }
+        return lowest.head.data;
+    }
+
+    //O(1)
+
+    /**
+     * Determine whether the access to addr is a hit or miss.
+     *
+     * @param addr the address requested by the next access
+     * @return true if the access is a cache hit, false if it is a cache miss
+     * @throws IllegalArgumentException if addr is null
+     */
+    public boolean access(String addr){
+        if(addr == null){
+            throw new IllegalArgumentException("Address cannot be null.");
+        }
+
+        Block block = index.get(addr);
+        if(block != null){
+            Bucket from = block.bucket;
+            block.count++;
+            Bucket to = from.next;
+            if(to == null || to.count != block.count){
+                to = new Bucket(block.count);
+                linkBucketAfter(from, to);
+            }
+            unlinkBlock(block);
+            linkBlock(to, block);
+            return true;
+        }
+
+        if(isFull()){
+            Block victim = lowest.head;
+            unlinkBlock(victim);
+            index.remove(victim.data);
+            evictions++;
+        }
+
+        block = new Block(addr);
+        Bucket first = lowest;
+        if(first == null || first.count != 1){
+            first = new Bucket(1);
+            linkBucketAfter(null, first);
+        }
+        linkBlock(first, block);
+        index.put(addr, block);
+        insertions++;
+        return false;
+    }
+
+    //O(1)
+
+    /**
+     * Returns true if addr is in cache, without counting as an access.
+     *
+     * @param addr the address to look up
+     * @return true if addr is in cache; false otherwise
+     */
+    public boolean contains(String addr){
+        return index.containsKey(addr);
+    }
+
+    //O(1)
+
+    /**
+     * Removes addr from cache if it is there, without counting as an access.
+     *
+     * @param addr the address to remove
+     * @return true if addr was in cache; false otherwise
+     */
+    public boolean invalidate(String addr){
+        Block block = index.remove(addr);
+        if(block == null){
+            return false;
+        }
+        unlinkBlock(block);
+        return true;
+    }
+
+    //O(n) where n is the number of items in cache
+
+    /**
+     * Returns a string representing all items in cache.
+     * Items follow the order from LFU to MFU, and from LRU to MRU among ties.
+     *
+     * @return a string representing all items in cache
+     */
+    @Override
+    public String toString(){
+        StringBuilder sb = new StringBuilder();
+        for(Bucket b = lowest; b != null; b = b.next){
+            for(Block current = b.head; current != null; current = current.next){
+                sb.append(current.toString());
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Links a new bucket right after the given one, or at the front if prev is null.
+     *
+     * @param prev the bucket to link after, or null for the front
+     * @param bucket the new bucket
+     */
+    private void linkBucketAfter(Bucket prev, Bucket bucket){
+        bucket.prev = prev;
+        if(prev == null){
+            bucket.next = lowest;
+            lowest = bucket;
+        } else {
+            bucket.next = prev.next;
+            prev.next = bucket;
+        }
+        if(bucket.next != null){
+            bucket.next.prev = bucket;
+        }
+    }
+
+    /**
+     * Appends a block as the MRU item of a bucket.
+     *
+     * @param bucket the bucket to append to
+     * @param block the detached block
+     */
+    private void linkBlock(Bucket bucket, Block block){
+        block.bucket = bucket;
+        block.prev = bucket.tail;
+        block.next = null;
+        if(bucket.tail == null){
+            bucket.head = block;
+        } else {
+            bucket.tail.next = block;
+        }
+        bucket.tail = block;
+    }
+
+    /**
+     * Detaches a block from its bucket, and drops the bucket once it is empty.
+     *
+     * @param block the block to detach
+     */
+    private void unlinkBlock(Block block){
+        Bucket bucket = block.bucket;
+        if(block.prev == null){
+            bucket.head = block.next;
+        } else {
+            block.prev.next = block.next;
+        }
+        if(block.next == null){
+            bucket.tail = block.prev;
+        } else {
+            block.next.prev = block.prev;
+        }
+        block.prev = null;
+        block.next = null;
+        block.bucket = null;
+
+        if(bucket.head == null){
+            if(bucket.prev == null){
+                lowest = bucket.next;
+            } else {
+                bucket.prev.next = bucket.next;
+            }
+            if(bucket.next != null){
+                bucket.next.prev = bucket.prev;
+            }
+        }
+    }
+}
@@ -0,0 +1,479 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Micro-benchmark suite for the cache engines and the data structures under them.
+ * It follows the usual benchmarking discipline: inputs are generated before timing starts,
+ * each benchmark runs timed warmup iterations before its measured iterations, every result
+ * is consumed so the JIT cannot drop the work, and the spread across iterations is reported.
+ * <p>
+ * Cache.access is measured for each engine, capacity, target hit ratio and key distribution.
+ * The target hit ratio is reached by sizing the key universe: a cache of capacity c over a
+ * universe of c/ratio keys hits about ratio of uniform accesses.
+ * BasicMap.put/get and SortedList.add are measured by size.
+ * <p>
+ * Usage: java CacheBenchmark [-e ENGINES] [-c CAPACITIES] [-r RATIOS] [-k DISTRIBUTIONS]
+ * [-w WARMUPS] [-i ITERATIONS] [-t MILLIS] [-j THREADS] [-x]
+ * <ul>
+ * <li>-e: engines, any Simulator policy name (fifo, lru, lfu, ...) plus fifo-int, lru-int, lfu-int
+ *     for the int-keyed engines, fifo-legacy, lru-legacy, lfu-legacy for the list-based ones,
+ *     lru-concurrent for ConcurrentLruCache and lru-locked for the same cache behind a single lock.
+ *     A -stats suffix, e.g. lru-stats, wraps any String-keyed engine in an InstrumentedCache</li>
+ * <li>-c: capacities, in the -s format of the simulator</li>
+ * <li>-r: target hit ratios in (0,1)</li>
+ * <li>-k: key distributions: uniform, zipf (skew 0.99) or scan (a loop over the universe)</li>
+ * <li>-w, -i, -t: warmup iterations, measured iterations and the length of each in milliseconds</li>
+ * <li>-j: threads sharing one cache in the access benchmarks of the thread-safe engines (lru-concurrent, lru-locked, clock; default 1)</li>
+ * <li>-x: skip the BasicMap and SortedList benchmarks</li>
+ * </ul>
+ * @author Aidan Emden
+ */
+
+public class CacheBenchmark {
+
+	/**
+	 * The number of keys generated for each run; access benchmarks cycle through them.
+	 */
+	private static final int KEY_COUNT = 1 << 20;
+
+	/**
+	 * The engine name suffix that wraps an engine in an InstrumentedCache.
+	 */
+	private static final String STATS_SUFFIX = "-stats";
+
+	/**
+	 * The number of operations between two clock reads.
+	 */
+	private static final int BATCH = 1 << 10;
+
+	/**
+	 * Consumes the results of every benchmark so none of the work can be optimised away.
+	 */
+	private static long sink;
+
+	/**
+	 * One unit of benchmarked work.
+	 */
+	private interface Operation {
+
+		/**
+		 * Performs operation i of a run.
+		 *
+		 * @param i the index of the operation, counting from 0 (wrapping to 0 after Integer.MAX_VALUE)
+		 * @return a value depending on the work done
+		 */
+		long run(int i);
+	}
+
+	/**
+	 * Factory creating a fresh state for each iteration of a benchmark.
+	 */
+	private interface Setup {
+
+		/**
+		 * Creates the operation of a new iteration.
+		 *
+		 * @return the operation to time
+		 */
+		Operation create();
+	}
+
+	/**
+	 * Runs the benchmarks given on the command line.
+	 *
+	 * @param args command line args
+	 */
+	public static void main(String[] args) {
+		String[] engines = {"fifo", "lru", "lfu", "clock", "arc", "wtinylfu", "slru", "2q", "lru-concurrent", "fifo-int", "lru-int", "lfu-int", "fifo-legacy", "lru-legacy", "lfu-legacy"};
+		int[] capacities = {1 << 10, 1 << 16};
+		double[] ratios = {0.5, 0.9};
+		String[] distributions = {"uniform", "zipf", "scan"};
+		int warmups = 3;
+		int iterations = 5;
+		int millis = 500;
+		int threads = 1;
+		boolean structures = true;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+					case "-e":
+						engines = args[++i].split(",");
+						break;
+					case "-c":
+						capacities = SimulatorOptions.parseSizes(args[++i]);
+						break;
+					case "-r":
+						String[] parts = args[++i].split(",");
+						ratios = new double[parts.length];
+						for (int j = 0; j < parts.length; j++) {
+							ratios[j] = Double.parseDouble(parts[j]);
+						}
+						break;
+					case "-k":
+						distributions = args[++i].split(",");
+						break;
+					case "-w":
+						warmups = Integer.parseInt(args[++i]);
+						break;
+					case "-i":
+						iterations = Integer.parseInt(args[++i]);
+						break;
+					case "-t":
+						millis = Integer.parseInt(args[++i]);
+						break;
+					case "-j":
+						threads = Integer.parseInt(args[++i]);
+						break;
+					case "-x":
+						structures = false;
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown option: " + args[i]);
+				}
+			}
+			for (double ratio : ratios) {
+				if (!(ratio > 0 && ratio < 1)) {
+					throw new IllegalArgumentException("Hit ratio must be in (0,1): " + ratio);
+				}
+			}
+			if (warmups < 0 || iterations < 1 || millis < 1) {
+				throw new IllegalArgumentException("Need at least one measured iteration of at least 1 ms.");
+			}
+			if (threads < 1) {
+				throw new IllegalArgumentException("Thread count must be positive.");
+			}
+		}
+		catch (RuntimeException e) {
+			System.out.println(e.getMessage());
+			System.out.println("Usage: java CacheBenchmark [-e ENGINES] [-c CAPACITIES] [-r RATIOS] [-k DISTRIBUTIONS] [-w WARMUPS] [-i ITERATIONS] [-t MILLIS] [-j THREADS] [-x]");
+			return;
+		}
+
+		System.out.format("%-48s %14s %12s %10s %9s\n", "Benchmark", "ops/s", "+-", "ns/op", "hit rate");
+		for (String distribution : distributions) {
+			for (int capacity : capacities) {
+				for (double ratio : ratios) {
+					int universe = (int)Math.max(capacity + 1, Math.min(Integer.MAX_VALUE, Math.round(capacity / ratio)));
+					int[] ids = keys(distribution, universe, 42);
+					String[] addrs = new String[ids.length];
+					for (int i = 0; i < ids.length; i++) {
+						addrs[i] = "0x" + Integer.toHexString(ids[i]);
+					}
+					for (String engine : engines) {
+						String name = String.format("access %s %s c=%d r=%.2f", engine, distribution, capacity, ratio);
+						if (threads > 1 && isThreadSafe(engine)) {
+							benchmarkShared(name + " j=" + threads, engine, capacity, addrs, threads, warmups, iterations, millis);
+						}
+						else {
+							benchmarkAccess(name, engine, capacity, addrs, ids, warmups, iterations, millis);
+						}
+					}
+				}
+			}
+		}
+
+		if (structures) {
+			for (int capacity : capacities) {
+				String[] addrs = new String[capacity];
+				for (int i = 0; i < capacity; i++) {
+					addrs[i] = "0x" + Integer.toHexString(i * 0x9E3779B1);
+				}
+				report(String.format("BasicMap.put+get n=%d", capacity), measure(() -> {
+					BasicMap<String, Integer> map = new BasicMap<>();
+					return i -> {
+						String addr = addrs[i % capacity];
+						Integer count = map.get(addr);
+						map.put(addr, count == null ? 1 : count + 1);
+						return map.size();
+					};
+				}, warmups, iterations, millis), -1);
+
+				//the list is rebuilt whenever it reaches n, so each add walks at most n nodes
+				Random random = new Random(7);
+				int[] values = new int[KEY_COUNT];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = random.nextInt(capacity);
+				}
+				report(String.format("SortedList.add n=%d", capacity), measure(() -> new Operation() {
+
+					/**
+					 * The list being filled, replaced by an empty one when full.
+					 */
+					private SortedList<Integer> list = new SortedList<>();
+
+					@Override
+					public long run(int i){
+						if (list.size() == capacity) {
+							list = new SortedList<>();
+						}
+						list.add(values[i & (KEY_COUNT - 1)]);
+						return list.size();
+					}
+				}, warmups, iterations, millis), -1);
+			}
+		}
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+
+	/**
+	 * Measures Cache.access or IntCache.access for one engine and prints the result.
+	 *
+	 * @param name the name of the benchmark
+	 * @param engine the engine name
+	 * @param capacity the cache capacity
+	 * @param addrs the keys as addresses
+	 * @param ids the keys as ids
+	 * @param warmups the number of warmup iterations
+	 * @param iterations the number of measured iterations
+	 * @param millis the length of each iteration in milliseconds
+	 */
+	private static void benchmarkAccess(String name, String engine, int capacity, String[] addrs, int[] ids,
+			int warmups, int iterations, int millis){
+		Setup setup;
+		if (engine.endsWith("-int")) {
+			int option = Simulator.policyOption(engine.substring(0, engine.length() - 4));
+			if (Simulator.createIntCache(option, 1) == null) {
+				System.out.format("%-48s no int-keyed engine\n", name);
+				return;
+			}
+			setup = () -> {
+				IntCache cache = Simulator.createIntCache(option, capacity);
+				return i -> cache.access(ids[i & (KEY_COUNT - 1)]) ? 1 : 0;
+			};
+		}
+		else {
+			setup = () -> {
+				Cache cache = createCache(engine, capacity);
+				return i -> cache.access(addrs[i & (KEY_COUNT - 1)]) ? 1 : 0;
+			};
+		}
+		try {
+			//each access returns 1 on a hit, so the mean value of the measured accesses is their hit rate
+			double[] result = measure(setup, warmups, iterations, millis);
+			report(name, result, result[2]);
+		}
+		catch (IllegalArgumentException e) {
+			System.out.format("%-48s %s\n", name, e.getMessage());
+		}
+	}
+
+	/**
+	 * Measures Cache.access for one thread-safe engine shared by several threads and prints the result.
+	 * Each thread starts at a different offset of the keys; the reported rate is that of all threads together.
+	 *
+	 * @param name the name of the benchmark
+	 * @param engine the engine name
+	 * @param capacity the cache capacity
+	 * @param addrs the keys as addresses
+	 * @param threads the number of threads
+	 * @param warmups the number of warmup iterations
+	 * @param iterations the number of measured iterations
+	 * @param millis the length of each iteration in milliseconds
+	 */
+	private static void benchmarkShared(String name, String engine, int capacity, String[] addrs, int threads,
+			int warmups, int iterations, int millis){
+		List<Double> rates = new ArrayList<>();
+		long hits = 0;
+		long total = 0;
+		for (int iteration = 0; iteration < warmups + iterations; iteration++) {
+			Cache cache = createCache(engine, capacity);
+			AtomicBoolean stop = new AtomicBoolean();
+			long[][] counts = new long[threads][2];
+			Thread[] workers = new Thread[threads];
+			for (int t = 0; t < threads; t++) {
+				int offset = t * (KEY_COUNT / threads);
+				long[] count = counts[t];
+				workers[t] = new Thread(() -> {
+					long done = 0;
+					long hit = 0;
+					while (!stop.get()) {
+						for (int i = 0; i < BATCH; i++) {
+							if (cache.access(addrs[(int)(offset + done + i) & (KEY_COUNT - 1)])) {
+								hit++;
+							}
+						}
+						done += BATCH;
+					}
+					count[0] = done;
+					count[1] = hit;
+				});
+			}
+			long start = System.nanoTime();
+			for (Thread worker : workers) {
+				worker.start();
+			}
+			try {
+				Thread.sleep(millis);
+				stop.set(true);
+				for (Thread worker : workers) {
+					worker.join();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			long elapsed = System.nanoTime() - start;
+			long done = 0;
+			for (long[] count : counts) {
+				done += count[0];
+				if (iteration >= warmups) {
+					hits += count[1];
+					total += count[0];
+				}
+			}
+			if (iteration >= warmups) {
+				rates.add(done * 1e9 / elapsed);
+			}
+		}
+		report(name, summarise(rates), total == 0 ? 0 : (double)hits / total);
+	}
+
+	/**
+	 * Reports whether an engine may be shared by several threads.
+	 *
+	 * @param engine the engine name
+	 * @return true if the engine is thread-safe
+	 */
+	private static boolean isThreadSafe(String engine){
+		if (engine.endsWith(STATS_SUFFIX)) {
+			engine = engine.substring(0, engine.length() - STATS_SUFFIX.length());
+		}
+		return engine.equals("lru-concurrent") || engine.equals("lru-locked") || engine.equals("clock");
+	}
+
+	/**
+	 * Creates a String-keyed cache by engine name.
+	 *
+	 * @param engine a Simulator policy name, or fifo-legacy, lru-legacy, lfu-legacy, lru-concurrent or lru-locked,
+	 *        optionally followed by -stats
+	 * @param capacity the cache capacity
+	 * @return an empty cache
+	 * @throws IllegalArgumentException if the engine is unknown
+	 */
+	private static Cache createCache(String engine, int capacity){
+		if (engine.endsWith(STATS_SUFFIX)) {
+			return new InstrumentedCache(createCache(engine.substring(0, engine.length() - STATS_SUFFIX.length()), capacity));
+		}
+		switch (engine) {
+			case "lru-concurrent":
+				return new ConcurrentLruCache(capacity);
+			case "lru-locked":
+				return new ConcurrentLruCache(capacity, 1);
+			case "fifo-legacy":
+				return new FifoCache(capacity);
+			case "lru-legacy":
+				return new LruCache(capacity);
+			case "lfu-legacy":
+				return new LfuCache(capacity);
+			default:
+				return Simulator.createCache(Simulator.policyOption(engine), capacity);
+		}
+	}
+
+	/**
+	 * Generates the keys of an access benchmark from the matching synthetic workload.
+	 *
+	 * @param distribution uniform, zipf or scan
+	 * @param universe the number of distinct keys
+	 * @param seed the seed of the workload
+	 * @return KEY_COUNT keys in [0, universe)
+	 * @throws IllegalArgumentException if the distribution is unknown
+	 */
+	private static int[] keys(String distribution, int universe, long seed){
+		String kind;
+		switch (distribution) {
+			case "uniform":
+			case "zipf":
+				kind = distribution;
+				break;
+			case "scan":
+				kind = "loop";
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown distribution: " + distribution);
+		}
+		Workload workload = Workload.parse(kind + ":n=" + universe + ",len=" + KEY_COUNT + ",seed=" + seed);
+		int[] keys = new int[KEY_COUNT];
+		for (int i = 0; i < KEY_COUNT; i++) {
+			keys[i] = (int)workload.nextKey();
+		}
+		return keys;
+	}
+
+	/**
+	 * Runs the warmup and measured iterations of a benchmark.
+	 *
+	 * @param setup the factory of the state of each iteration
+	 * @param warmups the number of warmup iterations
+	 * @param iterations the number of measured iterations
+	 * @param millis the length of each iteration in milliseconds
+	 * @return the mean and standard deviation of the operations per second of the measured iterations,
+	 *         followed by the mean value returned by their operations
+	 */
+	private static double[] measure(Setup setup, int warmups, int iterations, int millis){
+		List<Double> rates = new ArrayList<>();
+		long measuredOperations = 0;
+		long measuredSum = 0;
+		for (int iteration = 0; iteration < warmups + iterations; iteration++) {
+			Operation operation = setup.create();
+			long budget = millis * 1_000_000L;
+			long start = System.nanoTime();
+			long elapsed;
+			long done = 0;
+			long consumed = 0;
+			do {
+				for (int i = 0; i < BATCH; i++) {
+					consumed += operation.run((int)(done + i) & Integer.MAX_VALUE);
+				}
+				done += BATCH;
+				elapsed = System.nanoTime() - start;
+			} while (elapsed < budget);
+			sink += consumed;
+			if (iteration >= warmups) {
+				rates.add(done * 1e9 / elapsed);
+				measuredOperations += done;
+				measuredSum += consumed;
+			}
+		}
+		double[] summary = summarise(rates);
+		return new double[]{summary[0], summary[1], measuredOperations == 0 ? 0 : (double)measuredSum / measuredOperations};
+	}
+
+	/**
+	 * Summarises the rates of the measured iterations of a benchmark.
+	 *
+	 * @param rates the operations per second of each measured iteration
+	 * @return the mean and standard deviation of the rates
+	 */
+	private static double[] summarise(List<Double> rates){
+		double mean = 0;
+		for (double rate : rates) {
+			mean += rate;
+		}
+		mean /= rates.size();
+		double variance = 0;
+		for (double rate : rates) {
+			variance += (rate - mean) * (rate - mean);
+		}
+		double deviation = rates.size() > 1 ? Math.sqrt(variance / (rates.size() - 1)) : 0;
+		return new double[]{mean, deviation};
+	}
+
+	/**
+	 * Prints one line of results.
+	 *
+	 * @param name the name of the benchmark
+	 * @param result the mean and standard deviation of the operations per second
+	 * @param hitRate the observed hit rate, or a negative number if it does not apply
+	 */
+	private static void report(String name, double[] result, double hitRate){
+		System.out.format("%-48s %14.0f %12.0f %10.1f %9s\n", name, result[0], result[1], 1e9 / result[0],
+			hitRate < 0 ? "" : String.format("%.2f%%", hitRate * 100));
+	}
+}
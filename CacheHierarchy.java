@@ -0,0 +1,306 @@
+/**
+ * A hierarchy of caches, L1 first, simulated in a single pass: a miss at one level becomes an access
+ * at the next, and a miss at the last level goes to memory.
+ * Three inclusion policies decide where lines are filled and what an eviction does:
+ * <ul>
+ * <li>NON_INCLUSIVE: a miss fills every level it missed in, and evictions have no effect on other levels</li>
+ * <li>INCLUSIVE: fills as above, and a line evicted from a level is also invalidated in every level above
+ *     it (back-invalidation), so each level holds a subset of the one below</li>
+ * <li>EXCLUSIVE: a line lives in at most one level. Misses fill L1 only; a line hit at a lower level moves
+ *     up to L1, and a line evicted from a level moves down to the next one (the last level drops it)</li>
+ * </ul>
+ * Each level learns which line it evicts from nextToReplace, so levels must be InvalidatableCaches,
+ * which report their victim exactly.
+ * @author Aidan Emden
+ */
+
+public class CacheHierarchy {
+
+	/**
+	 * The inclusion policy where levels are filled independently.
+	 */
+	public static final int NON_INCLUSIVE = 0;
+
+	/**
+	 * The inclusion policy where each level holds a subset of the one below.
+	 */
+	public static final int INCLUSIVE = 1;
+
+	/**
+	 * The inclusion policy where a line lives in at most one level.
+	 */
+	public static final int EXCLUSIVE = 2;
+
+	/**
+	 * The levels of the hierarchy, L1 first.
+	 */
+	private InvalidatableCache[] levels;
+
+	/**
+	 * The inclusion policy.
+	 */
+	private int inclusion;
+
+	/**
+	 * The number of accesses that reached each level.
+	 */
+	private long[] accesses;
+
+	/**
+	 * The number of accesses that hit at each level.
+	 */
+	private long[] hits;
+
+	/**
+	 * The number of lines evicted from each level.
+	 */
+	private long[] evictions;
+
+	/**
+	 * The number of lines invalidated in upper levels to keep the hierarchy inclusive.
+	 */
+	private long backInvalidations;
+
+	/**
+	 * Constructor for a hierarchy of empty levels.
+	 *
+	 * @param levels the levels, L1 first
+	 * @param inclusion the inclusion policy: NON_INCLUSIVE, INCLUSIVE or EXCLUSIVE
+	 * @throws IllegalArgumentException if there are no levels or the inclusion policy is unknown
+	 */
+	public CacheHierarchy(InvalidatableCache[] levels, int inclusion){
+		if (levels.length == 0) {
+			throw new IllegalArgumentException("A hierarchy needs at least one level.");
+		}
+		if (inclusion != NON_INCLUSIVE && inclusion != INCLUSIVE && inclusion != EXCLUSIVE) {
+			throw new IllegalArgumentException("Unknown inclusion policy: " + inclusion);
+		}
+		this.levels = levels.clone();
+		this.inclusion = inclusion;
+		accesses = new long[levels.length];
+		hits = new long[levels.length];
+		evictions = new long[levels.length];
+		backInvalidations = 0;
+	}
+
+	/**
+	 * Finds an inclusion policy by name.
+	 *
+	 * @param name "inclusive", "exclusive" or "non-inclusive"
+	 * @return the inclusion policy
+	 * @throws IllegalArgumentException if the name is unknown
+	 */
+	public static int inclusionOption(String name){
+		switch (name.toLowerCase()) {
+			case "non-inclusive":
+			case "noninclusive":
+			case "nine":
+				return NON_INCLUSIVE;
+			case "inclusive":
+				return INCLUSIVE;
+			case "exclusive":
+				return EXCLUSIVE;
+			default:
+				throw new IllegalArgumentException("Unknown inclusion policy: " + name);
+		}
+	}
+
+	/**
+	 * Names an inclusion policy.
+	 *
+	 * @param inclusion the inclusion policy
+	 * @return "non-inclusive", "inclusive" or "exclusive"
+	 */
+	public static String inclusionName(int inclusion){
+		switch (inclusion) {
+			case NON_INCLUSIVE:
+				return "non-inclusive";
+			case INCLUSIVE:
+				return "inclusive";
+			case EXCLUSIVE:
+				return "exclusive";
+			default:
+				throw new IllegalArgumentException("Unknown inclusion policy: " + inclusion);
+		}
+	}
+
+	//O(L) cache accesses where L is the number of levels
+
+	/**
+	 * Sends one access down the hierarchy.
+	 *
+	 * @param addr the address requested by the access
+	 * @return the index of the level that hit, from 0 for L1, or the number of levels if it went to memory
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public int access(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		return inclusion == EXCLUSIVE ? accessExclusive(addr) : accessFilling(addr);
+	}
+
+	/**
+	 * Sends one access down a non-inclusive or inclusive hierarchy, filling every level it misses in.
+	 *
+	 * @param addr the address requested by the access
+	 * @return the index of the level that hit, or the number of levels if it went to memory
+	 */
+	private int accessFilling(String addr){
+		for (int level = 0; level < levels.length; level++) {
+			accesses[level]++;
+			String victim = fill(level, addr);
+			if (victim == addr) {
+				hits[level]++;
+				return level;
+			}
+			if (victim != null && inclusion == INCLUSIVE) {
+				for (int above = 0; above < level; above++) {
+					if (levels[above].invalidate(victim)) {
+						backInvalidations++;
+					}
+				}
+			}
+		}
+		return levels.length;
+	}
+
+	/**
+	 * Sends one access down an exclusive hierarchy.
+	 *
+	 * @param addr the address requested by the access
+	 * @return the index of the level that hit, or the number of levels if it went to memory
+	 */
+	private int accessExclusive(String addr){
+		accesses[0]++;
+		if (levels[0].contains(addr)) {
+			levels[0].access(addr);
+			hits[0]++;
+			return 0;
+		}
+
+		int found = levels.length;
+		for (int level = 1; level < levels.length; level++) {
+			accesses[level]++;
+			if (levels[level].invalidate(addr)) {
+				hits[level]++;
+				found = level;
+				break;
+			}
+		}
+
+		//the line moves up to L1, and each victim moves one level down
+		String moving = addr;
+		for (int level = 0; level < levels.length && moving != null; level++) {
+			String victim = fill(level, moving);
+			moving = victim == moving ? null : victim;
+		}
+		return found;
+	}
+
+	/**
+	 * Accesses an address at one level, counting the eviction it causes.
+	 *
+	 * @param level the level
+	 * @param addr the address
+	 * @return addr itself on a hit, otherwise the line evicted to make room for addr, or null if none was
+	 */
+	private String fill(int level, String addr){
+		InvalidatableCache cache = levels[level];
+		String victim = cache.isFull() ? cache.nextToReplace() : null;
+		if (cache.access(addr)) {
+			return addr;
+		}
+		if (victim != null) {
+			evictions[level]++;
+		}
+		return victim;
+	}
+
+	/**
+	 * Returns the number of levels.
+	 *
+	 * @return the number of levels
+	 */
+	public int getLevels(){
+		return levels.length;
+	}
+
+	/**
+	 * Returns one level of the hierarchy.
+	 *
+	 * @param level the index of the level, from 0 for L1
+	 * @return the cache of that level
+	 */
+	public InvalidatableCache getLevel(int level){
+		return levels[level];
+	}
+
+	/**
+	 * Returns the number of accesses that reached a level.
+	 *
+	 * @param level the index of the level, from 0 for L1
+	 * @return the number of accesses that reached the level
+	 */
+	public long getAccesses(int level){
+		return accesses[level];
+	}
+
+	/**
+	 * Returns the number of accesses that hit at a level.
+	 *
+	 * @param level the index of the level, from 0 for L1
+	 * @return the number of hits of the level
+	 */
+	public long getHits(int level){
+		return hits[level];
+	}
+
+	/**
+	 * Returns the number of lines evicted from a level.
+	 *
+	 * @param level the index of the level, from 0 for L1
+	 * @return the number of evictions of the level
+	 */
+	public long getEvictions(int level){
+		return evictions[level];
+	}
+
+	/**
+	 * Returns the number of accesses that missed at every level.
+	 *
+	 * @return the number of accesses that went to memory
+	 */
+	public long getMemoryAccesses(){
+		int last = levels.length - 1;
+		return accesses[last] - hits[last];
+	}
+
+	/**
+	 * Returns the number of lines invalidated in upper levels to keep the hierarchy inclusive.
+	 *
+	 * @return the number of back-invalidations
+	 */
+	public long getBackInvalidations(){
+		return backInvalidations;
+	}
+
+	//O(n) where n is the number of items in all levels
+
+	/**
+	 * Returns a string representing all items of every level, L1 first.
+	 *
+	 * @return a string representing all items of the hierarchy
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		for (int level = 0; level < levels.length; level++) {
+			if (level > 0) {
+				sb.append(" | ");
+			}
+			sb.append("L").append(level + 1).append(": ").append(levels[level]);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,226 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a cache: hits, misses, insertions and evictions, and a histogram of access latencies.
+ * Counters are LongAdders and the histogram uses atomic increments, so recording never locks or
+ * allocates, many threads can record at once, and the statistics can be read while they are recorded.
+ * A snapshot is a separate CacheStats that no longer changes.
+ * @author Aidan Emden
+ */
+
+public class CacheStats {
+
+	/**
+	 * The number of accesses that hit.
+	 */
+	private LongAdder hits;
+
+	/**
+	 * The number of accesses that missed.
+	 */
+	private LongAdder misses;
+
+	/**
+	 * The number of items stored in cache.
+	 */
+	private LongAdder insertions;
+
+	/**
+	 * The number of items evicted from cache.
+	 */
+	private LongAdder evictions;
+
+	/**
+	 * The latencies of accesses.
+	 */
+	private LatencyHistogram latency;
+
+	/**
+	 * Constructor for empty statistics.
+	 */
+	public CacheStats(){
+		this(new LatencyHistogram());
+	}
+
+	/**
+	 * Constructor for statistics with no counts and the given latencies.
+	 *
+	 * @param latency the histogram of latencies
+	 */
+	private CacheStats(LatencyHistogram latency){
+		hits = new LongAdder();
+		misses = new LongAdder();
+		insertions = new LongAdder();
+		evictions = new LongAdder();
+		this.latency = latency;
+	}
+
+	//O(1)
+
+	/**
+	 * Records an access that hit.
+	 *
+	 * @param nanos the latency of the access in nanoseconds
+	 */
+	public void recordHit(long nanos){
+		hits.increment();
+		latency.record(nanos);
+	}
+
+	//O(1)
+
+	/**
+	 * Records an access that missed.
+	 *
+	 * @param nanos the latency of the access in nanoseconds
+	 */
+	public void recordMiss(long nanos){
+		misses.increment();
+		latency.record(nanos);
+	}
+
+	//O(1)
+
+	/**
+	 * Records items stored in cache.
+	 *
+	 * @param count the number of items stored
+	 */
+	public void recordInsertions(long count){
+		insertions.add(count);
+	}
+
+	//O(1)
+
+	/**
+	 * Records items evicted from cache.
+	 *
+	 * @param count the number of items evicted
+	 */
+	public void recordEvictions(long count){
+		evictions.add(count);
+	}
+
+	/**
+	 * Returns the number of accesses that hit.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits(){
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of accesses that missed.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses(){
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of accesses.
+	 *
+	 * @return the number of hits and misses
+	 */
+	public long getAccesses(){
+		return getHits() + getMisses();
+	}
+
+	/**
+	 * Returns the number of items stored in cache.
+	 *
+	 * @return the number of insertions
+	 */
+	public long getInsertions(){
+		return insertions.sum();
+	}
+
+	/**
+	 * Returns the number of items evicted from cache.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictions(){
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns the percentage of accesses that hit.
+	 *
+	 * @return the hit rate in percent, or 0 if there were no accesses
+	 */
+	public double hitRate(){
+		long hit = getHits();
+		long accesses = hit + getMisses();
+		return accesses == 0 ? 0 : (double)hit / accesses * 100;
+	}
+
+	/**
+	 * Returns the histogram of access latencies.
+	 *
+	 * @return the latencies, still recording unless this is a snapshot
+	 */
+	public LatencyHistogram getLatency(){
+		return latency;
+	}
+
+	//O(B) where B is the number of histogram buckets
+
+	/**
+	 * Returns a copy of these statistics.
+	 *
+	 * @return statistics with the same counts
+	 */
+	public CacheStats snapshot(){
+		CacheStats copy = new CacheStats(latency.snapshot());
+		copy.hits.add(hits.sum());
+		copy.misses.add(misses.sum());
+		copy.insertions.add(insertions.sum());
+		copy.evictions.add(evictions.sum());
+		return copy;
+	}
+
+	//O(B) where B is the number of histogram buckets
+
+	/**
+	 * Returns a copy of these statistics and starts them over.
+	 * Whatever is recorded meanwhile is counted in either the copy or these statistics, never lost.
+	 *
+	 * @return statistics with the counts taken from these
+	 */
+	public CacheStats snapshotAndReset(){
+		CacheStats copy = new CacheStats(latency.snapshotAndReset());
+		copy.hits.add(take(hits));
+		copy.misses.add(take(misses));
+		copy.insertions.add(take(insertions));
+		copy.evictions.add(take(evictions));
+		return copy;
+	}
+
+	/**
+	 * Takes the count of an adder away from it.
+	 * Subtracting what was read, rather than resetting, keeps increments made during the read.
+	 *
+	 * @param adder the adder
+	 * @return the count taken
+	 */
+	private static long take(LongAdder adder){
+		long count = adder.sum();
+		adder.add(-count);
+		return count;
+	}
+
+	/**
+	 * Returns a string with every statistic, one per line.
+	 *
+	 * @return the string representation of the statistics
+	 */
+	@Override
+	public String toString(){
+		return String.format("Total accesses: %d%nTotal hits: %d%nTotal misses: %d%nHit Rate: %.2f%%%n"
+			+ "Insertions: %d%nEvictions: %d%nLatency: %s",
+			getAccesses(), getHits(), getMisses(), hitRate(), getInsertions(), getEvictions(), latency);
+	}
+}
@@ -0,0 +1,292 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache implementing CLOCK (second-chance) replacement policy.
+ * Addresses sit in a circular array of slots, each with a reference bit. A hit only sets the
+ * reference bit of its slot, so unlike LRU nothing is reordered and the hit path is a lookup in a
+ * ConcurrentHashMap plus a single atomic store, with no lock. On a miss in a full cache the clock
+ * hand sweeps forward, clearing reference bits, and evicts the first address whose bit is clear.
+ * New addresses start with the bit clear, so without hits CLOCK evicts in FIFO order.
+ * <p>
+ * Misses are serialised by a lock, so the cache may be shared by several threads. A hit that races
+ * with the eviction of its own address may set the bit of the slot's new occupant; that only gives
+ * one address an extra second chance.
+ * @author Aidan Emden
+ */
+
+public class ClockCache implements CountingCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The number of items stored since the cache was created.
+	 */
+	private volatile long insertions;
+
+	/**
+	 * The number of items evicted since the cache was created.
+	 */
+	private volatile long evictions;
+
+	/**
+	 * The address held in each slot; slots 0 to size-1 are used.
+	 */
+	private String[] slots;
+
+	/**
+	 * The reference bit of each slot, 1 if the slot was hit since the hand last passed it.
+	 */
+	private AtomicIntegerArray referenced;
+
+	/**
+	 * The slot of each address in cache.
+	 */
+	private ConcurrentHashMap<String, Integer> index;
+
+	/**
+	 * The slot the clock hand points at, the first one examined by the next eviction.
+	 */
+	private int hand;
+
+	/**
+	 * The number of addresses stored in cache.
+	 */
+	private volatile int size;
+
+	/**
+	 * The lock serialising misses.
+	 */
+	private ReentrantLock lock;
+
+	/**
+	 * Constructor for a cache with capacity as cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public ClockCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		capacity = cap;
+		slots = new String[cap];
+		referenced = new AtomicIntegerArray(cap);
+		index = new ConcurrentHashMap<>(Math.min(cap, 1 << 20));
+		hand = 0;
+		size = 0;
+		lock = new ReentrantLock();
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return size;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return insertions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the position of the clock hand.
+	 *
+	 * @return the slot the next eviction starts examining, from 0 to capacity-1
+	 */
+	public int getHand(){
+		lock.lock();
+		try {
+			return hand;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss: the first item from the
+	 * clock hand whose reference bit is clear, or the item under the hand if every bit is set.
+	 *
+	 * @return item that will be evicted if the next access is a miss. Return null if the cache is empty
+	 */
+	public String nextToReplace(){
+		lock.lock();
+		try {
+			if (size == 0) {
+				return null;
+			}
+			for (int i = 0, slot = hand; i < size; i++, slot = next(slot)) {
+				if (referenced.get(slot) == 0) {
+					return slots[slot];
+				}
+			}
+			return slots[hand];
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	//O(1) amortized
+
+	/**
+	 * This is the method that accepts the addr as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 * It may be called from any number of threads at the same time; hits take no lock.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+
+		Integer slot = index.get(addr);
+		if (slot != null) {
+			reference(slot);
+			return true;
+		}
+
+		lock.lock();
+		try {
+			//another thread may have brought addr in while this one waited
+			slot = index.get(addr);
+			if (slot != null) {
+				reference(slot);
+				return true;
+			}
+
+			int victim;
+			if (size < capacity) {
+				victim = size;
+			}
+			else {
+				while (referenced.get(hand) != 0) {
+					referenced.set(hand, 0);
+					hand = next(hand);
+				}
+				victim = hand;
+				index.remove(slots[victim]);
+				hand = next(hand);
+				evictions++;
+			}
+			slots[victim] = addr;
+			referenced.set(victim, 0);
+			index.put(addr, victim);
+			if (size < capacity) {
+				size++;
+			}
+			insertions++;
+			return false;
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	//O(1)
+
+	/**
+	 * Sets the reference bit of a slot, skipping the store when it is already set.
+	 *
+	 * @param slot the slot that was hit
+	 */
+	private void reference(int slot){
+		if (referenced.get(slot) == 0) {
+			referenced.set(slot, 1);
+		}
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the slot after the given one on the clock.
+	 *
+	 * @param slot a slot
+	 * @return the next slot, wrapping to 0
+	 */
+	private int next(int slot){
+		return slot + 1 == capacity ? 0 : slot + 1;
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache in clock order, starting at the clock hand.
+	 * Items whose reference bit is set are marked with a '*'.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		lock.lock();
+		try {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0, slot = hand; i < size; i++, slot = next(slot)) {
+				sb.append(slots[slot]);
+				if (referenced.get(slot) != 0) {
+					sb.append('*');
+				}
+				sb.append(" ");
+			}
+			return sb.toString().trim();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,288 @@
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe cache implementing LRU replacement per segment.
+ * Addresses are partitioned by hash into lock-striped segments, each an independent HashLruCache
+ * behind its own lock, so threads only contend when they touch the same segment and there is no
+ * global lock on the access path.
+ * <p>
+ * Because every segment evicts on its own, this approximates LRU over the whole cache: a miss
+ * evicts the least recently used address of its segment once that segment is full, even if the
+ * cache as a whole is not. With one segment it is exactly HashLruCache.
+ * The reporting methods (size, isFull, nextToReplace, toString) lock one segment at a time, so
+ * under concurrent access they describe each segment at a slightly different moment.
+ * @author Aidan Emden
+ */
+
+public class ConcurrentLruCache implements CountingCache {
+
+	/**
+	 * The smallest capacity a segment is given when the number of segments is picked automatically.
+	 */
+	private static final int MIN_SEGMENT_CAPACITY = 16;
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The segments of the cache; the length is a power of two.
+	 */
+	private Segment[] segments;
+
+	/**
+	 * One stripe of the cache: an LRU cache guarded by this lock.
+	 */
+	private static final class Segment extends ReentrantLock {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The addresses of this segment, ordered from LRU to MRU.
+		 */
+		private final HashLruCache lru;
+
+		/**
+		 * Constructor for an empty segment.
+		 *
+		 * @param cap the capacity of the segment
+		 */
+		private Segment(int cap){
+			lru = new HashLruCache(cap);
+		}
+	}
+
+	/**
+	 * Constructor for a cache with capacity as cap, striped for the processors of this machine.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public ConcurrentLruCache(int cap){
+		this(cap, Math.max(1, Math.min(4 * Runtime.getRuntime().availableProcessors(), cap / MIN_SEGMENT_CAPACITY)));
+	}
+
+	/**
+	 * Constructor for a cache with capacity as cap and about concurrency segments.
+	 *
+	 * @param cap the capacity of the cache
+	 * @param concurrency the number of segments wanted; it is rounded down to a power of two no larger than cap
+	 * @throws IllegalArgumentException if cap or concurrency is not positive
+	 */
+	public ConcurrentLruCache(int cap, int concurrency){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		if (concurrency <= 0) {
+			throw new IllegalArgumentException("Concurrency must be positive.");
+		}
+		capacity = cap;
+		int count = Integer.highestOneBit(Math.min(cap, concurrency));
+		segments = new Segment[count];
+		//spread the remainder over the first segments
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(cap / count + (i < cap % count ? 1 : 0));
+		}
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the segment an address belongs to.
+	 *
+	 * @param addr the address
+	 * @return the segment of addr
+	 */
+	private Segment segmentFor(String addr){
+		int h = addr.hashCode();
+		h ^= h >>> 16;
+		h *= 0x9E3779B1;
+		return segments[(h >>> 16) & (segments.length - 1)];
+	}
+
+	//O(s) where s is the number of segments
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size() == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(s) where s is the number of segments
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		int size = 0;
+		for (Segment segment : segments) {
+			segment.lock();
+			try {
+				size += segment.lru.size();
+			}
+			finally {
+				segment.unlock();
+			}
+		}
+		return size;
+	}
+
+	//O(s) where s is the number of segments
+
+	/**
+	 * Reports the number of items stored in cache since it was created, summed over the segments.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		long insertions = 0;
+		for (Segment segment : segments) {
+			segment.lock();
+			try {
+				insertions += segment.lru.insertions();
+			}
+			finally {
+				segment.unlock();
+			}
+		}
+		return insertions;
+	}
+
+	//O(s) where s is the number of segments
+
+	/**
+	 * Reports the number of items evicted from cache since it was created, summed over the segments.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		long evictions = 0;
+		for (Segment segment : segments) {
+			segment.lock();
+			try {
+				evictions += segment.lru.evictions();
+			}
+			finally {
+				segment.unlock();
+			}
+		}
+		return evictions;
+	}
+
+	//O(s) where s is the number of segments
+
+	/**
+	 * Reports an item that may be evicted by the next miss. Which item a miss evicts depends on the
+	 * segment of the missing address, so this is the LRU item of the first full segment, or of the
+	 * first non-empty one if none is full; use nextToReplace(String) for the exact victim of a given address.
+	 *
+	 * @return an item that may be evicted by the next miss. Return null if the cache is empty
+	 */
+	public String nextToReplace(){
+		String candidate = null;
+		for (Segment segment : segments) {
+			segment.lock();
+			try {
+				if (segment.lru.isFull()) {
+					return segment.lru.nextToReplace();
+				}
+				if (candidate == null) {
+					candidate = segment.lru.nextToReplace();
+				}
+			}
+			finally {
+				segment.unlock();
+			}
+		}
+		return candidate;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access to addr is a miss, that is the LRU item of its segment.
+	 *
+	 * @param addr the address of the next access
+	 * @return item that will be evicted if the next access to addr is a miss. Return null if its segment is empty
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public String nextToReplace(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		Segment segment = segmentFor(addr);
+		segment.lock();
+		try {
+			return segment.lru.nextToReplace();
+		}
+		finally {
+			segment.unlock();
+		}
+	}
+
+	//O(1)
+
+	/**
+	 * This is the method that accepts the addr as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 * It may be called from any number of threads at the same time.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		Segment segment = segmentFor(addr);
+		segment.lock();
+		try {
+			return segment.lru.access(addr);
+		}
+		finally {
+			segment.unlock();
+		}
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache, segment by segment, each from LRU to MRU.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		for (Segment segment : segments) {
+			segment.lock();
+			try {
+				String items = segment.lru.toString();
+				if (!items.isEmpty()) {
+					sb.append(items).append(" ");
+				}
+			}
+			finally {
+				segment.unlock();
+			}
+		}
+		return sb.toString().trim();
+	}
+}
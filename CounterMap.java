@@ -0,0 +1,246 @@
+// Purpose: Count occurrences of keys, such as the accesses and hits per address of the cache simulator.
+
+/**
+ * CounterMap class.
+ * A map from keys to int counts, specialised for counting: keys and counts sit in parallel arrays,
+ * so increment finds the key with a single probe and bumps its count in place, with no boxing and
+ * no allocation unless the key is new or the table has to grow.
+ * It hashes and probes exactly as BasicMap does, so it lists its pairs in the same order and its
+ * toString is the same as that of a BasicMap holding the same counts.
+ * @author Aidan Emden
+ * @param <K> the type of the key
+ */
+
+
+public class CounterMap<K> {
+
+    /**
+     * The keys; a null cell is empty.
+     */
+    private Object[] keys;
+
+    /**
+     * The count of the key in the same cell.
+     */
+    private int[] counts;
+
+    /**
+     * The default capacity of the map.
+     */
+    final static private int DEFAULT_CAPACITY = 8;
+
+    /**
+     * The fraction of the table that may be filled before it is doubled.
+     */
+    final static private double LOAD_FACTOR = 0.5;
+
+    /**
+     * The largest table length the map will grow to.
+     */
+    final static private int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The number of keys that triggers the next resize.
+     */
+    private int threshold;
+
+    /**
+     * The number of keys in the map.
+     */
+    private int size;
+
+    /**
+     * Constructor for an empty map, starting from a table of DEFAULT_CAPACITY cells.
+     */
+    public CounterMap() {
+        this(0);
+    }
+
+    /**
+     * Constructor for a map expected to hold about expected keys.
+     *
+     * @param expected the number of keys the map should hold without resizing
+     * @throws IllegalArgumentException if expected is negative
+     */
+    public CounterMap(int expected) {
+        if(expected < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative.");
+        }
+        int cap = DEFAULT_CAPACITY;
+        while(cap < MAXIMUM_CAPACITY && cap * LOAD_FACTOR < expected) {
+            cap <<= 1;
+        }
+        allocate(cap);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return the number of keys in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the cell holding a key, or the empty cell ending its probe sequence.
+     *
+     * @param key the key
+     * @return the cell of the key if present, otherwise the empty cell where it would go
+     */
+    private int find(Object key) {
+        int mask = keys.length - 1;
+        int h = key.hashCode();
+        int index = (h ^ (h >>> 16)) & mask;
+        while(keys[index] != null && !keys[index].equals(key)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    //O(1) on average
+
+    /**
+     * Adds one to the count of a key, starting it at 1 if the key is new.
+     *
+     * @param key the key
+     * @return the new count of the key
+     * @throws IllegalArgumentException if key is null
+     */
+    public int increment(K key) {
+        return add(key, 1);
+    }
+
+    //O(1) on average
+
+    /**
+     * Adds to the count of a key, starting it at 0 if the key is new.
+     *
+     * @param key the key
+     * @param delta the amount to add
+     * @return the new count of the key
+     * @throws IllegalArgumentException if key is null
+     */
+    public int add(K key, int delta) {
+        if(key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+
+        int index = find(key);
+        if(keys[index] != null) {
+            counts[index] += delta;
+            return counts[index];
+        }
+
+        if(size >= threshold && keys.length < MAXIMUM_CAPACITY) {
+            resize(keys.length << 1);
+            index = find(key);
+        }
+        keys[index] = key;
+        counts[index] = delta;
+        size++;
+        return delta;
+    }
+
+    //O(1) on average
+
+    /**
+     * Returns the count of a key.
+     *
+     * @param key the key
+     * @return the count of the key, or 0 if it was never counted
+     */
+    public int get(K key) {
+        if(key == null) {
+            return 0;
+        }
+        int index = find(key);
+        return keys[index] == null ? 0 : counts[index];
+    }
+
+    /**
+     * Allocates an empty table of the given length.
+     *
+     * @param cap the new table length, a power of two
+     */
+    private void allocate(int cap) {
+        keys = new Object[cap];
+        counts = new int[cap];
+        threshold = (int)Math.min((long)(cap * LOAD_FACTOR), cap - 1);
+    }
+
+    /**
+     * Moves every key into a new table of the given length.
+     *
+     * @param cap the new table length, a power of two
+     */
+    private void resize(int cap) {
+        Object[] oldKeys = keys;
+        int[] oldCounts = counts;
+        allocate(cap);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = find(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Returns a string representation of the map, in the format of BasicMap.
+     *
+     * @return a string representation of the map
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i=0; i<keys.length; i++) {
+            if (keys[i] != null) {
+                if (sb.length()>0)
+                    sb.append(",");
+                sb.append("<").append(keys[i]).append(":").append(counts[i]).append(">");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Main method to test the CounterMap class.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String args[]) {
+
+        CounterMap<String> map = new CounterMap<>();
+
+        map.increment("apple");
+        map.increment("eggplant");
+        map.increment("apple");
+        if (map.get("apple") == 2 && map.get("eggplant") == 1 && map.get("pear") == 0 && map.size() == 2){
+            System.out.println("Yay1");
+        }
+
+        if (map.add("cherry", 5) == 5 && map.increment("cherry") == 6 && map.size() == 3){
+            System.out.println("Yay2");
+        }
+
+        //lists the same pairs in the same order as a BasicMap of the same counts
+        CounterMap<String> counter = new CounterMap<>();
+        BasicMap<String, Integer> record = new BasicMap<>();
+        boolean same = true;
+        for (int i = 0; i < 10000 && same; i++) {
+            String key = Integer.toHexString(i * i % 1777);
+            int count = counter.increment(key);
+            Integer old = record.get(key);
+            record.put(key, old == null ? 1 : old + 1);
+            same = count == record.get(key);
+        }
+        if (same && counter.size() == record.size() && counter.toString().equals(record.toString())){
+            System.out.println("Yay3");
+        }
+    }
+
+
+}
@@ -0,0 +1,26 @@
+/**
+ * A cache that counts the items it stores and evicts.
+ * Only the cache itself knows when a miss stores nothing (e.g. a rejected admission or a
+ * no-write-allocate store) or evicts something, so wrappers such as InstrumentedCache read
+ * these counts rather than guessing them from hits and sizes.
+ * Counts are only ever bumped where the cache already does the work, at no extra cost per access.
+ * @author Aidan Emden
+ */
+
+public interface CountingCache extends Cache {
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	long insertions();
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 * Items removed by invalidation are not evictions.
+	 *
+	 * @return the number of evictions
+	 */
+	long evictions();
+}
@@ -0,0 +1,185 @@
+/**
+ * FrequencySketch class is a count-min sketch estimating how often each key was seen, as the
+ * admission filter of W-TinyLFU needs it.
+ * It has four rows of counters, and a key has one counter in each row; its estimate is the
+ * smallest of the four, so collisions can only make a key look more popular, never less.
+ * The four counters are picked by double hashing: one multiplicative hash of the key gives two
+ * values a and b, and row r uses the top bits of a + r*b.
+ * Increments are conservative: only the counters at the current minimum are raised, which keeps
+ * collisions from inflating the other rows. Counters take 4 bits, two to a byte, and saturate at 15.
+ * Once the number of increments reaches the sample size every counter is halved, so the estimates
+ * follow the recent popularity of keys rather than all of history.
+ * Each row has four counters per expected key, so the whole sketch takes 8 bytes per expected key.
+ * @author Aidan Emden
+ */
+
+class FrequencySketch {
+
+	/**
+	 * The number of rows, i.e. of counters per key.
+	 */
+	private static final int DEPTH = 4;
+
+	/**
+	 * The largest value of a counter.
+	 */
+	private static final int MAX_COUNT = 15;
+
+	/**
+	 * The number of counters per row for each expected key.
+	 */
+	private static final int COUNTERS_PER_KEY = 4;
+
+	/**
+	 * The smallest number of counters per row.
+	 */
+	private static final int MIN_WIDTH = 16;
+
+	/**
+	 * The largest number of counters per row.
+	 */
+	private static final int MAX_WIDTH = 1 << 28;
+
+	/**
+	 * The counters, row after row, two to a byte: counter c is the low half of byte c/2 if c is even,
+	 * and its high half if c is odd.
+	 */
+	private byte[] counters;
+
+	/**
+	 * The number of counters per row, a power of two.
+	 */
+	private int width;
+
+	/**
+	 * How far a 32-bit hash is shifted right to keep only the bits that pick a counter in a row.
+	 */
+	private int shift;
+
+	/**
+	 * The number of increments after which every counter is halved.
+	 */
+	private int sampleSize;
+
+	/**
+	 * The number of increments since the counters were last halved, itself halved with them.
+	 */
+	private int additions;
+
+	/**
+	 * Constructor for an empty sketch sized for about expected distinct keys.
+	 *
+	 * @param expected the number of keys to estimate well, usually the cache capacity
+	 * @throws IllegalArgumentException if expected is not positive
+	 */
+	public FrequencySketch(int expected){
+		if (expected <= 0) {
+			throw new IllegalArgumentException("Expected size must be positive.");
+		}
+		width = MIN_WIDTH;
+		while (width < (long)COUNTERS_PER_KEY * expected && width < MAX_WIDTH) {
+			width <<= 1;
+		}
+		shift = Integer.numberOfLeadingZeros(width) + 1;
+		counters = new byte[DEPTH * width / 2];
+		sampleSize = (int)Math.min(10L * expected, Integer.MAX_VALUE);
+		additions = 0;
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the estimated number of times a key was seen, halved at every aging.
+	 *
+	 * @param hash the hash code of the key
+	 * @return the estimate, from 0 to 15
+	 */
+	public int frequency(int hash){
+		long h = mix(hash);
+		int a = (int)(h >>> 32);
+		int b = (int)h | 1;
+		int frequency = MAX_COUNT;
+		for (int row = 0; row < DEPTH; row++) {
+			frequency = Math.min(frequency, get(slot(a, b, row)));
+		}
+		return frequency;
+	}
+
+	//O(1) amortized
+
+	/**
+	 * Counts one more occurrence of a key, halving every counter once the sample size is reached.
+	 * Only the counters of the key equal to its estimate are raised.
+	 *
+	 * @param hash the hash code of the key
+	 */
+	public void increment(int hash){
+		long h = mix(hash);
+		int a = (int)(h >>> 32);
+		int b = (int)h | 1;
+		int min = MAX_COUNT;
+		for (int row = 0; row < DEPTH; row++) {
+			min = Math.min(min, get(slot(a, b, row)));
+		}
+		if (min == MAX_COUNT) {
+			return;
+		}
+		for (int row = 0; row < DEPTH; row++) {
+			int slot = slot(a, b, row);
+			if (get(slot) == min) {
+				counters[slot >>> 1] += 1 << ((slot & 1) << 2);
+			}
+		}
+		if (++additions == sampleSize) {
+			age();
+		}
+	}
+
+	//O(n) where n is the number of counters of the sketch
+
+	/**
+	 * Halves every counter and the number of additions.
+	 */
+	private void age(){
+		for (int i = 0; i < counters.length; i++) {
+			int low = (counters[i] & 0xf) >>> 1;
+			int high = (counters[i] >>> 4 & 0xf) >>> 1;
+			counters[i] = (byte)(high << 4 | low);
+		}
+		additions >>>= 1;
+	}
+
+	/**
+	 * Returns the value of a counter.
+	 *
+	 * @param slot the index of the counter
+	 * @return its value, from 0 to 15
+	 */
+	private int get(int slot){
+		return counters[slot >>> 1] >>> ((slot & 1) << 2) & 0xf;
+	}
+
+	/**
+	 * Returns the counter of a key in one row.
+	 *
+	 * @param a the first hash of the key
+	 * @param b the second hash of the key, odd
+	 * @param row the row, from 0 to DEPTH-1
+	 * @return the index of the counter
+	 */
+	private int slot(int a, int b, int row){
+		return row * width + ((a + row * b) >>> shift);
+	}
+
+	/**
+	 * Spreads a hash code over 64 bits by multiplying it by the golden ratio and folding the
+	 * high bits of the product into the low half.
+	 *
+	 * @param hash the hash code of a key
+	 * @return the mixed hash; its high half is the first hash and its low half the second
+	 */
+	private static long mix(int hash){
+		long h = (hash ^ (hash >>> 16)) * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 29);
+	}
+}
@@ -0,0 +1,174 @@
+/**
+ * Cache implementing LRU replacement policy in constant time per access.
+ * Addresses are kept in a RecencyList, a hash index into a doubly linked list
+ * ordered from LRU to MRU, so hit, promote and evict are all O(1).
+ * It produces exactly the same hits, misses and output as LruCache.
+ * @author Aidan Emden
+ */
+
+public class HashLruCache implements InvalidatableCache, CountingCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The number of items stored since the cache was created.
+	 */
+	private long insertions;
+
+	/**
+	 * The number of items evicted since the cache was created.
+	 */
+	private long evictions;
+
+	/**
+	 * The storage of the cache, ordered from LRU to MRU.
+	 */
+	private RecencyList storage;
+
+	/**
+	 * Constructor for a cache with capacity as cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public HashLruCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		capacity = cap;
+		storage = new RecencyList();
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return storage.size() == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return storage.size();
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return insertions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss.
+	 *
+	 * @return item that will be evicted if the next access is a miss. Return null if no item will be evicted
+	 */
+	public String nextToReplace(){
+		return storage.getFirst();
+	}
+
+	//O(1)
+
+	/**
+	 * This is the method that accepts the addr as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		if(addr == null){
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+
+		if(storage.touch(addr)){
+			return true;
+		}
+
+		if(storage.size() == capacity){
+			storage.removeFirst();
+			evictions++;
+		}
+
+		storage.addLast(addr);
+		insertions++;
+		return false;
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if addr is in cache, without counting as an access.
+	 *
+	 * @param addr the address to look up
+	 * @return true if addr is in cache; false otherwise
+	 */
+	public boolean contains(String addr){
+		return storage.contains(addr);
+	}
+
+	//O(1)
+
+	/**
+	 * Removes addr from cache if it is there, without counting as an access.
+	 *
+	 * @param addr the address to remove
+	 * @return true if addr was in cache; false otherwise
+	 */
+	public boolean invalidate(String addr){
+		return storage.remove(addr);
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache, from LRU to MRU.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		return storage.listToString();
+	}
+}
@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A whole access sequence held in memory so it can be replayed many times.
+ * Addresses are interned at load time: the trace itself is an int array of dense ids,
+ * and an AddressInterner translates the ids back to addresses.
+ * Once loaded the trace is never modified, so any number of threads may replay it at the same time.
+ * @author Aidan Emden
+ */
+
+public class InMemoryTrace {
+
+	/**
+	 * The id of each access in order; only the first length slots are used.
+	 */
+	private int[] ids;
+
+	/**
+	 * The number of accesses in the trace.
+	 */
+	private int length;
+
+	/**
+	 * The interner that handed out the ids.
+	 */
+	private AddressInterner names;
+
+	/**
+	 * Constructor for a trace over the given ids.
+	 *
+	 * @param ids the ids in order
+	 * @param length the number of accesses used from ids
+	 * @param names the interner that handed out the ids
+	 */
+	private InMemoryTrace(int[] ids, int length, AddressInterner names){
+		this.ids = ids;
+		this.length = length;
+		this.names = names;
+	}
+
+	/**
+	 * Reads a whole access sequence into memory, interning each address.
+	 *
+	 * @param source the source of the access sequence; it is read to the end but not closed
+	 * @return the loaded trace
+	 * @throws IOException If an input exception occurred while reading the source
+	 */
+	public static InMemoryTrace load(TraceSource source) throws IOException {
+		if (source instanceof BinaryTraceReader) {
+			return load((BinaryTraceReader)source);
+		}
+		AddressInterner names = new AddressInterner();
+		int[] ids = new int[1024];
+		int length = 0;
+		String addr;
+		while ((addr = source.next()) != null) {
+			if (length == ids.length) {
+				ids = grow(ids);
+			}
+			ids[length++] = names.intern(addr);
+		}
+		return new InMemoryTrace(ids, length, names);
+	}
+
+	/**
+	 * Reads a whole binary trace into memory, reusing its dictionary and ids as they are.
+	 *
+	 * @param source the binary trace; it is read to the end but not closed
+	 * @return the loaded trace
+	 * @throws IOException If an input exception occurred while reading the source
+	 */
+	private static InMemoryTrace load(BinaryTraceReader source) throws IOException {
+		if (source.getAccesses() > Integer.MAX_VALUE - 8) {
+			throw new IOException("Trace too long to hold in memory.");
+		}
+		int[] ids = new int[(int)Math.max(source.getAccesses(), 1)];
+		int length = 0;
+		int id;
+		while ((id = source.nextId()) >= 0) {
+			if (length == ids.length) {
+				ids = grow(ids);
+			}
+			ids[length++] = id;
+		}
+		return new InMemoryTrace(ids, length, source.names());
+	}
+
+	/**
+	 * Returns a copy of ids with twice the room.
+	 *
+	 * @param ids the full array
+	 * @return a larger array starting with the same ids
+	 * @throws IOException If the array cannot grow any further
+	 */
+	private static int[] grow(int[] ids) throws IOException {
+		if (ids.length == Integer.MAX_VALUE - 8) {
+			throw new IOException("Trace too long to hold in memory.");
+		}
+		return Arrays.copyOf(ids, (int)Math.min(2L * ids.length, Integer.MAX_VALUE - 8));
+	}
+
+	/**
+	 * Returns the number of accesses in the trace.
+	 *
+	 * @return the number of accesses
+	 */
+	public int length(){
+		return length;
+	}
+
+	/**
+	 * Returns the interner that translates the ids of the trace back to addresses.
+	 *
+	 * @return the interner of the trace
+	 */
+	public AddressInterner names(){
+		return names;
+	}
+
+	/**
+	 * Returns the id of one access.
+	 *
+	 * @param index the position of the access, from 0 to length()-1
+	 * @return the id of the address of the access
+	 */
+	public int id(int index){
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("No access " + index);
+		}
+		return ids[index];
+	}
+
+	/**
+	 * Returns the address of one access.
+	 *
+	 * @param index the position of the access, from 0 to length()-1
+	 * @return the address of the access
+	 */
+	public String get(int index){
+		return names.nameOf(id(index));
+	}
+
+	/**
+	 * Returns a new source replaying the trace from its start.
+	 *
+	 * @return a source yielding each access of the trace in order
+	 */
+	public TraceSource replay(){
+		return new TraceSource() {
+			int next = 0;
+
+			public String next(){
+				return next < length ? names.nameOf(ids[next++]) : null;
+			}
+
+			public void close(){
+			}
+		};
+	}
+}
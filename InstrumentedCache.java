@@ -0,0 +1,172 @@
+/**
+ * Cache wrapper that records CacheStats of every access: hit or miss and latency.
+ * Insertions and evictions are taken from the cache itself when it is a CountingCache, as every
+ * policy of Simulator.createCache is, so a miss that stores nothing or a rejected admission is
+ * counted as the cache saw it. They are brought up to date whenever the statistics are read,
+ * which keeps the access path free of locks and allocation even around ConcurrentLruCache.
+ * Around any other cache only hits, misses and latencies are recorded.
+ * The wrapper is as thread-safe as the cache it wraps.
+ * @author Aidan Emden
+ */
+
+public class InstrumentedCache implements Cache {
+
+	/**
+	 * The cache being measured.
+	 */
+	private Cache cache;
+
+	/**
+	 * The statistics recorded.
+	 */
+	private CacheStats stats;
+
+	/**
+	 * The cache as a CountingCache, or null if it does not count its insertions and evictions.
+	 */
+	private CountingCache counting;
+
+	/**
+	 * The insertions of the cache already recorded in the statistics.
+	 */
+	private long settledInsertions;
+
+	/**
+	 * The evictions of the cache already recorded in the statistics.
+	 */
+	private long settledEvictions;
+
+	/**
+	 * Constructor for a wrapper measuring a cache.
+	 *
+	 * @param cache the cache to measure
+	 * @throws IllegalArgumentException if cache is null
+	 */
+	public InstrumentedCache(Cache cache){
+		if (cache == null) {
+			throw new IllegalArgumentException("Cache cannot be null.");
+		}
+		this.cache = cache;
+		stats = new CacheStats();
+		counting = cache instanceof CountingCache ? (CountingCache)cache : null;
+		if (counting != null) {
+			settledInsertions = counting.insertions();
+			settledEvictions = counting.evictions();
+		}
+	}
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return cache.isFull();
+	}
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return cache.capacity();
+	}
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return cache.size();
+	}
+
+	/**
+	 * Return item that will be evicted if the next access is a miss.
+	 *
+	 * @return item that will be evicted if the next access is a miss. Return null if no item will be evicted
+	 */
+	public String nextToReplace(){
+		return cache.nextToReplace();
+	}
+
+	/**
+	 * Determine whether the access to addr is a hit or miss, and record it.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		long start = System.nanoTime();
+		boolean hit = cache.access(addr);
+		long nanos = System.nanoTime() - start;
+		if (hit) {
+			stats.recordHit(nanos);
+		}
+		else {
+			stats.recordMiss(nanos);
+		}
+		return hit;
+	}
+
+	/**
+	 * Returns the statistics recorded so far. They keep changing while the cache is accessed;
+	 * the insertions and evictions are brought up to date by each call.
+	 *
+	 * @return the live statistics
+	 */
+	public CacheStats stats(){
+		settleCounts();
+		return stats;
+	}
+
+	/**
+	 * Returns a copy of the statistics recorded so far.
+	 *
+	 * @return statistics that no longer change
+	 */
+	public CacheStats snapshot(){
+		settleCounts();
+		return stats.snapshot();
+	}
+
+	/**
+	 * Returns a copy of the statistics recorded so far and starts them over.
+	 *
+	 * @return statistics that no longer change
+	 */
+	public CacheStats snapshotAndReset(){
+		settleCounts();
+		return stats.snapshotAndReset();
+	}
+
+	/**
+	 * Records the insertions and evictions the cache counted since the last call.
+	 * Under concurrent access the two counts are read at slightly different moments, so a miss that
+	 * lands between the reads may have its insertion and its eviction recorded in different
+	 * snapshots; the totals are exact.
+	 */
+	private synchronized void settleCounts(){
+		if (counting == null) {
+			return;
+		}
+		long insertions = counting.insertions();
+		long evictions = counting.evictions();
+		stats.recordInsertions(insertions - settledInsertions);
+		stats.recordEvictions(evictions - settledEvictions);
+		settledInsertions = insertions;
+		settledEvictions = evictions;
+	}
+
+	/**
+	 * Return a string representing all items in cache.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		return cache.toString();
+	}
+}
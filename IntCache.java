@@ -0,0 +1,52 @@
+/**
+ * A cache of int-keyed addresses, such as the ids handed out by an AddressInterner.
+ * It mirrors Cache, but keeps its entries in primitive arrays with no boxing and no per-entry objects.
+ * @author Aidan Emden
+ */
+
+public interface IntCache {
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	boolean isFull();
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	int capacity();
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	int size();
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss.
+	 *
+	 * @return the id that will be evicted, or -1 if no item will be evicted
+	 */
+	int nextToReplace();
+
+	/**
+	 * Accepts id as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 *
+	 * @param id the non-negative id requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 */
+	boolean access(int id);
+
+	/**
+	 * Returns a string representing all items in cache, in the same format as the matching Cache.
+	 *
+	 * @param names the interner that handed out the ids
+	 * @return a string representing all items in cache
+	 */
+	String toString(AddressInterner names);
+}
@@ -0,0 +1,151 @@
+import java.util.Arrays;
+
+/**
+ * IntCache implementing FIFO replacement policy.
+ * Insertion order is kept in a ring buffer of ids and membership in a flag array indexed by id,
+ * so every access is O(1) and nothing is allocated except when a larger id first shows up.
+ * @author Aidan Emden
+ */
+
+public class IntFifoCache implements IntCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The ring buffer of ids in insertion order.
+	 */
+	private int[] ring;
+
+	/**
+	 * The ring buffer slot of the first in (oldest) id.
+	 */
+	private int first;
+
+	/**
+	 * The number of ids stored in cache.
+	 */
+	private int size;
+
+	/**
+	 * Whether each id is stored in cache.
+	 */
+	private boolean[] resident;
+
+	/**
+	 * Constructor for a cache with capacity as cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public IntFifoCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		capacity = cap;
+		ring = new int[cap];
+		first = 0;
+		size = 0;
+		resident = new boolean[64];
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return size;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss.
+	 *
+	 * @return the oldest id, or -1 if no item will be evicted
+	 */
+	public int nextToReplace(){
+		if (size == 0) {
+			return -1;
+		}
+		return ring[first];
+	}
+
+	//O(1)
+
+	/**
+	 * Determine whether the access to id is a hit or miss.
+	 *
+	 * @param id the id requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if id is negative
+	 */
+	public boolean access(int id){
+		if (id < 0) {
+			throw new IllegalArgumentException("Id cannot be negative.");
+		}
+		if (id >= resident.length) {
+			resident = Arrays.copyOf(resident, Math.max(resident.length * 2, id + 1));
+		}
+		if (resident[id]) {
+			return true;
+		}
+
+		int slot;
+		if (size == capacity) {
+			slot = first;
+			resident[ring[slot]] = false;
+			first = (first + 1) % capacity;
+		} else {
+			slot = (first + size) % capacity;
+			size++;
+		}
+		ring[slot] = id;
+		resident[id] = true;
+		return false;
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Return a string representing all items in cache, from first in to last in.
+	 *
+	 * @param names the interner that handed out the ids
+	 * @return a string representing all items in cache
+	 */
+	public String toString(AddressInterner names){
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < size; i++) {
+			sb.append(names.nameOf(ring[(first + i) % capacity]));
+			sb.append(" ");
+		}
+		return sb.toString().trim();
+	}
+}
@@ -0,0 +1,317 @@
+import java.util.Arrays;
+
+/**
+ * IntCache implementing LFU replacement policy, with LRU among items of equal count.
+ * It follows the frequency-bucket design of BucketLfuCache, but entries and buckets are slots of
+ * parallel int arrays instead of objects, so every access is O(1) and allocates nothing
+ * except when a larger id first shows up.
+ * @author Aidan Emden
+ */
+
+public class IntLfuCache implements IntCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The id stored in each entry.
+	 */
+	private int[] key;
+
+	/**
+	 * How many times each entry is accessed since it is loaded in.
+	 */
+	private int[] count;
+
+	/**
+	 * The bucket holding each entry.
+	 */
+	private int[] bucketOf;
+
+	/**
+	 * The entry accessed less recently than each entry in the same bucket, or -1.
+	 */
+	private int[] prev;
+
+	/**
+	 * The entry accessed more recently than each entry in the same bucket, or -1.
+	 */
+	private int[] next;
+
+	/**
+	 * The number of entries in use.
+	 */
+	private int size;
+
+	/**
+	 * The entry of each id plus one, or 0 if the id is not in cache.
+	 */
+	private int[] entryOf;
+
+	/**
+	 * The access count shared by the entries of each bucket.
+	 */
+	private int[] bucketCount;
+
+	/**
+	 * The least recently used entry of each bucket.
+	 */
+	private int[] bucketHead;
+
+	/**
+	 * The most recently used entry of each bucket.
+	 */
+	private int[] bucketTail;
+
+	/**
+	 * The bucket with the next lower count than each bucket, or -1.
+	 */
+	private int[] bucketPrev;
+
+	/**
+	 * The bucket with the next higher count than each bucket, or -1.
+	 */
+	private int[] bucketNext;
+
+	/**
+	 * The stack of unused buckets.
+	 */
+	private int[] freeBuckets;
+
+	/**
+	 * The number of unused buckets on the stack.
+	 */
+	private int freeCount;
+
+	/**
+	 * The bucket with the lowest count, or -1 if the cache is empty.
+	 */
+	private int lowest;
+
+	/**
+	 * Constructor for a cache with capacity as cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public IntLfuCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		capacity = cap;
+		key = new int[cap];
+		count = new int[cap];
+		bucketOf = new int[cap];
+		prev = new int[cap];
+		next = new int[cap];
+		size = 0;
+		entryOf = new int[64];
+
+		//every bucket holds an entry, plus one while an entry moves to a new bucket
+		int buckets = cap + 1;
+		bucketCount = new int[buckets];
+		bucketHead = new int[buckets];
+		bucketTail = new int[buckets];
+		bucketPrev = new int[buckets];
+		bucketNext = new int[buckets];
+		freeBuckets = new int[buckets];
+		for (int b = 0; b < buckets; b++) {
+			freeBuckets[b] = buckets - 1 - b;
+		}
+		freeCount = buckets;
+		lowest = -1;
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return size;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss.
+	 *
+	 * @return the least frequently used id, or -1 if no item will be evicted
+	 */
+	public int nextToReplace(){
+		if (lowest < 0) {
+			return -1;
+		}
+		return key[bucketHead[lowest]];
+	}
+
+	//O(1)
+
+	/**
+	 * Determine whether the access to id is a hit or miss.
+	 *
+	 * @param id the id requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if id is negative
+	 */
+	public boolean access(int id){
+		if (id < 0) {
+			throw new IllegalArgumentException("Id cannot be negative.");
+		}
+		if (id >= entryOf.length) {
+			entryOf = Arrays.copyOf(entryOf, Math.max(entryOf.length * 2, id + 1));
+		}
+
+		int entry = entryOf[id] - 1;
+		if (entry >= 0) {
+			int from = bucketOf[entry];
+			count[entry]++;
+			int to = bucketNext[from];
+			if (to < 0 || bucketCount[to] != count[entry]) {
+				to = newBucketAfter(from, count[entry]);
+			}
+			unlinkEntry(entry);
+			linkEntry(to, entry);
+			return true;
+		}
+
+		if (size == capacity) {
+			//reuse the LFU entry for the new id
+			entry = bucketHead[lowest];
+			unlinkEntry(entry);
+			entryOf[key[entry]] = 0;
+		} else {
+			entry = size;
+			size++;
+		}
+		key[entry] = id;
+		count[entry] = 1;
+		entryOf[id] = entry + 1;
+		int first = lowest;
+		if (first < 0 || bucketCount[first] != 1) {
+			first = newBucketAfter(-1, 1);
+		}
+		linkEntry(first, entry);
+		return false;
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache with their counts, e.g. "&lt;A,1&gt;&lt;C,3&gt;".
+	 * Items follow the order from LFU to MFU, and from LRU to MRU among ties.
+	 *
+	 * @param names the interner that handed out the ids
+	 * @return a string representing all items in cache
+	 */
+	public String toString(AddressInterner names){
+		StringBuilder sb = new StringBuilder();
+		for (int b = lowest; b >= 0; b = bucketNext[b]) {
+			for (int entry = bucketHead[b]; entry >= 0; entry = next[entry]) {
+				sb.append("<").append(names.nameOf(key[entry])).append(",").append(count[entry]).append(">");
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Takes an unused bucket and links it right after the given one, or at the front if after is -1.
+	 *
+	 * @param after the bucket to link after, or -1 for the front
+	 * @param initialCount the access count of the new bucket
+	 * @return the new bucket
+	 */
+	private int newBucketAfter(int after, int initialCount){
+		int bucket = freeBuckets[--freeCount];
+		bucketCount[bucket] = initialCount;
+		bucketHead[bucket] = -1;
+		bucketTail[bucket] = -1;
+		bucketPrev[bucket] = after;
+		if (after < 0) {
+			bucketNext[bucket] = lowest;
+			lowest = bucket;
+		} else {
+			bucketNext[bucket] = bucketNext[after];
+			bucketNext[after] = bucket;
+		}
+		if (bucketNext[bucket] >= 0) {
+			bucketPrev[bucketNext[bucket]] = bucket;
+		}
+		return bucket;
+	}
+
+	/**
+	 * Appends an entry as the MRU one of a bucket.
+	 *
+	 * @param bucket the bucket to append to
+	 * @param entry the detached entry
+	 */
+	private void linkEntry(int bucket, int entry){
+		bucketOf[entry] = bucket;
+		prev[entry] = bucketTail[bucket];
+		next[entry] = -1;
+		if (bucketTail[bucket] < 0) {
+			bucketHead[bucket] = entry;
+		} else {
+			next[bucketTail[bucket]] = entry;
+		}
+		bucketTail[bucket] = entry;
+	}
+
+	/**
+	 * Detaches an entry from its bucket, and releases the bucket once it is empty.
+	 *
+	 * @param entry the entry to detach
+	 */
+	private void unlinkEntry(int entry){
+		int bucket = bucketOf[entry];
+		if (prev[entry] < 0) {
+			bucketHead[bucket] = next[entry];
+		} else {
+			next[prev[entry]] = next[entry];
+		}
+		if (next[entry] < 0) {
+			bucketTail[bucket] = prev[entry];
+		} else {
+			prev[next[entry]] = prev[entry];
+		}
+
+		if (bucketHead[bucket] < 0) {
+			if (bucketPrev[bucket] < 0) {
+				lowest = bucketNext[bucket];
+			} else {
+				bucketNext[bucketPrev[bucket]] = bucketNext[bucket];
+			}
+			if (bucketNext[bucket] >= 0) {
+				bucketPrev[bucketNext[bucket]] = bucketPrev[bucket];
+			}
+			freeBuckets[freeCount++] = bucket;
+		}
+	}
+}
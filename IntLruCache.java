@@ -0,0 +1,210 @@
+import java.util.Arrays;
+
+/**
+ * IntCache implementing LRU replacement policy.
+ * Entries live in parallel int arrays forming a doubly linked list from LRU to MRU,
+ * and an array indexed by id leads to each entry, so hit, promote and evict are all O(1).
+ * @author Aidan Emden
+ */
+
+public class IntLruCache implements IntCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The id stored in each entry.
+	 */
+	private int[] key;
+
+	/**
+	 * The entry used less recently than each entry, or -1.
+	 */
+	private int[] prev;
+
+	/**
+	 * The entry used more recently than each entry, or -1.
+	 */
+	private int[] next;
+
+	/**
+	 * The least recently used entry, or -1 if the cache is empty.
+	 */
+	private int head;
+
+	/**
+	 * The most recently used entry, or -1 if the cache is empty.
+	 */
+	private int tail;
+
+	/**
+	 * The number of entries in use.
+	 */
+	private int size;
+
+	/**
+	 * The entry of each id plus one, or 0 if the id is not in cache.
+	 */
+	private int[] entryOf;
+
+	/**
+	 * Constructor for a cache with capacity as cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public IntLruCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		capacity = cap;
+		key = new int[cap];
+		prev = new int[cap];
+		next = new int[cap];
+		head = -1;
+		tail = -1;
+		size = 0;
+		entryOf = new int[64];
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return size;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss.
+	 *
+	 * @return the least recently used id, or -1 if no item will be evicted
+	 */
+	public int nextToReplace(){
+		if (head < 0) {
+			return -1;
+		}
+		return key[head];
+	}
+
+	//O(1)
+
+	/**
+	 * Determine whether the access to id is a hit or miss.
+	 *
+	 * @param id the id requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if id is negative
+	 */
+	public boolean access(int id){
+		if (id < 0) {
+			throw new IllegalArgumentException("Id cannot be negative.");
+		}
+		if (id >= entryOf.length) {
+			entryOf = Arrays.copyOf(entryOf, Math.max(entryOf.length * 2, id + 1));
+		}
+
+		int entry = entryOf[id] - 1;
+		if (entry >= 0) {
+			if (entry != tail) {
+				unlink(entry);
+				link(entry);
+			}
+			return true;
+		}
+
+		if (size == capacity) {
+			//reuse the LRU entry for the new id
+			entry = head;
+			unlink(entry);
+			entryOf[key[entry]] = 0;
+		} else {
+			entry = size;
+			size++;
+		}
+		key[entry] = id;
+		entryOf[id] = entry + 1;
+		link(entry);
+		return false;
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache, from LRU to MRU.
+	 *
+	 * @param names the interner that handed out the ids
+	 * @return a string representing all items in cache
+	 */
+	public String toString(AddressInterner names){
+		StringBuilder sb = new StringBuilder();
+		for (int entry = head; entry >= 0; entry = next[entry]) {
+			sb.append(names.nameOf(key[entry]));
+			sb.append(" ");
+		}
+		return sb.toString().trim();
+	}
+
+	/**
+	 * Links a detached entry as the MRU one.
+	 *
+	 * @param entry the entry to link
+	 */
+	private void link(int entry){
+		prev[entry] = tail;
+		next[entry] = -1;
+		if (tail < 0) {
+			head = entry;
+		} else {
+			next[tail] = entry;
+		}
+		tail = entry;
+	}
+
+	/**
+	 * Detaches an entry from the list.
+	 *
+	 * @param entry the entry to detach
+	 */
+	private void unlink(int entry){
+		if (prev[entry] < 0) {
+			head = next[entry];
+		} else {
+			next[prev[entry]] = next[entry];
+		}
+		if (next[entry] < 0) {
+			tail = prev[entry];
+		} else {
+			prev[next[entry]] = prev[entry];
+		}
+	}
+}
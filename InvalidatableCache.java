@@ -0,0 +1,26 @@
+/**
+ * A cache that can be asked whether it holds an address, and told to drop one,
+ * as needed when several caches are stacked in a CacheHierarchy.
+ * Implementations must report through nextToReplace exactly the item a miss would evict
+ * when the cache is full, since that is how a hierarchy learns which item left a level.
+ * @author Aidan Emden
+ */
+
+public interface InvalidatableCache extends Cache {
+
+	/**
+	 * Returns true if addr is in cache, without counting as an access.
+	 *
+	 * @param addr the address to look up
+	 * @return true if addr is in cache; false otherwise
+	 */
+	boolean contains(String addr);
+
+	/**
+	 * Removes addr from cache if it is there, without counting as an access.
+	 *
+	 * @param addr the address to remove
+	 * @return true if addr was in cache; false otherwise
+	 */
+	boolean invalidate(String addr);
+}
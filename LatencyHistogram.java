@@ -0,0 +1,179 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets, in the style of HdrHistogram.
+ * Values below 64 get a bucket each; above that every power of two is split into 32 equal buckets,
+ * so any value is reported within about 3% of its true value, from 1 ns up to Long.MAX_VALUE,
+ * in a fixed array of 1888 counters.
+ * Recording is one lock-free atomic increment and allocates nothing, so many threads can record at
+ * once while another reads percentiles or takes snapshots.
+ * @author Aidan Emden
+ */
+
+public class LatencyHistogram {
+
+	/**
+	 * The number of bits of a value kept exactly: values below 2^SUB_BITS get a bucket each.
+	 */
+	private static final int SUB_BITS = 6;
+
+	/**
+	 * The number of buckets per power of two above 2^SUB_BITS.
+	 */
+	private static final int HALF = 1 << (SUB_BITS - 1);
+
+	/**
+	 * The number of buckets, enough for every non-negative long.
+	 */
+	private static final int BUCKETS = (64 - SUB_BITS + 1) * HALF;
+
+	/**
+	 * The number of values recorded in each bucket.
+	 */
+	private AtomicLongArray counts;
+
+	/**
+	 * Constructor for an empty histogram.
+	 */
+	public LatencyHistogram(){
+		counts = new AtomicLongArray(BUCKETS);
+	}
+
+	//O(1)
+
+	/**
+	 * Records one latency.
+	 *
+	 * @param nanos the latency in nanoseconds; negative values count as 0
+	 */
+	public void record(long nanos){
+		counts.incrementAndGet(bucket(Math.max(nanos, 0)));
+	}
+
+	//O(B) where B is the number of buckets
+
+	/**
+	 * Returns the number of latencies recorded.
+	 *
+	 * @return the number of latencies recorded
+	 */
+	public long count(){
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			count += counts.get(i);
+		}
+		return count;
+	}
+
+	//O(B) where B is the number of buckets
+
+	/**
+	 * Returns the latency that a fraction of the recorded latencies do not exceed, e.g. 0.99 for the 99th percentile.
+	 * The result is the highest value of its bucket, so it may overstate the true percentile by about 3%.
+	 *
+	 * @param quantile the fraction, from 0 to 1
+	 * @return the latency in nanoseconds, or 0 if nothing was recorded
+	 * @throws IllegalArgumentException if quantile is not between 0 and 1
+	 */
+	public long percentile(double quantile){
+		if (!(quantile >= 0 && quantile <= 1)) {
+			throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+		}
+		long[] copy = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			copy[i] = counts.get(i);
+			count += copy[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long)Math.ceil(quantile * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += copy[i];
+			if (seen >= rank) {
+				return highest(i);
+			}
+		}
+		return highest(BUCKETS - 1);
+	}
+
+	//O(B) where B is the number of buckets
+
+	/**
+	 * Returns a copy of this histogram.
+	 *
+	 * @return a histogram with the same counts
+	 */
+	public LatencyHistogram snapshot(){
+		LatencyHistogram copy = new LatencyHistogram();
+		for (int i = 0; i < BUCKETS; i++) {
+			copy.counts.set(i, counts.get(i));
+		}
+		return copy;
+	}
+
+	//O(B) where B is the number of buckets
+
+	/**
+	 * Returns a copy of this histogram and empties it.
+	 * Each bucket is taken and zeroed atomically, so a latency recorded meanwhile lands in either
+	 * the copy or this histogram, never in both or neither.
+	 *
+	 * @return a histogram with the counts taken from this one
+	 */
+	public LatencyHistogram snapshotAndReset(){
+		LatencyHistogram copy = new LatencyHistogram();
+		for (int i = 0; i < BUCKETS; i++) {
+			copy.counts.set(i, counts.getAndSet(i, 0));
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns the bucket of a value.
+	 *
+	 * @param value a non-negative value
+	 * @return the index of its bucket
+	 */
+	private static int bucket(long value){
+		if (value < 2 * HALF) {
+			return (int)value;
+		}
+		int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		//the top SUB_BITS bits of value, from HALF to 2*HALF-1
+		int top = (int)(value >>> shift);
+		return shift * HALF + top;
+	}
+
+	/**
+	 * Returns the highest value that falls in a bucket.
+	 *
+	 * @param bucket the index of the bucket
+	 * @return the highest value of the bucket
+	 */
+	private static long highest(int bucket){
+		if (bucket < 2 * HALF) {
+			return bucket;
+		}
+		int shift = bucket / HALF - 1;
+		long top = bucket - (long)shift * HALF;
+		if (shift + SUB_BITS >= 63 && top == 2 * HALF - 1) {
+			return Long.MAX_VALUE;
+		}
+		return ((top + 1) << shift) - 1;
+	}
+
+	//O(B) where B is the number of buckets
+
+	/**
+	 * Returns the median, 99th and 99.9th percentiles.
+	 *
+	 * @return the percentiles, e.g. "p50 120 ns, p99 850 ns, p999 4100 ns"
+	 */
+	@Override
+	public String toString(){
+		return String.format("p50 %d ns, p99 %d ns, p999 %d ns", percentile(0.5), percentile(0.99), percentile(0.999));
+	}
+}
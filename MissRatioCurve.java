@@ -0,0 +1,201 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One-pass LRU hit-rate curve built from Mattson stack distances.
+ * The stack distance of an access is the position its address holds in the LRU stack just before
+ * the access, so an LRU cache of size c hits exactly the accesses whose distance is at most c.
+ * Distances are counted with a Fenwick tree over access times in which only the latest access of
+ * each address is marked, which makes every access O(log M) for a curve up to size M.
+ * @author Aidan Emden
+ */
+
+public class MissRatioCurve {
+
+	/**
+	 * The largest cache size the curve is built for.
+	 */
+	private int maxSize;
+
+	/**
+	 * The number of accesses with each stack distance; slot 0 is unused.
+	 */
+	private long[] distances;
+
+	/**
+	 * The number of accesses seen.
+	 */
+	private long accesses;
+
+	/**
+	 * The latest time each tracked address was accessed at.
+	 */
+	private HashMap<String, Integer> lastAccess;
+
+	/**
+	 * The Fenwick tree marking the latest access time of each tracked address; slot 0 is unused.
+	 */
+	private int[] tree;
+
+	/**
+	 * The time the next access will be given, from 1 to tree.length-1.
+	 */
+	private int now;
+
+	/**
+	 * Constructor for an empty curve up to size maxSize.
+	 *
+	 * @param maxSize the largest cache size of the curve
+	 * @throws IllegalArgumentException if maxSize is not positive
+	 */
+	public MissRatioCurve(int maxSize){
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Size must be positive.");
+		}
+		this.maxSize = maxSize;
+		distances = new long[maxSize + 1];
+		accesses = 0;
+		lastAccess = new HashMap<>();
+		tree = new int[(int)Math.min(2L * maxSize + 1024, Integer.MAX_VALUE - 8)];
+		now = 1;
+	}
+
+	//O(log M) amortized where M is the largest size of the curve
+
+	/**
+	 * Records the next access of the trace.
+	 *
+	 * @param addr the address requested by the access
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public void access(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		if (now == tree.length) {
+			compact();
+		}
+
+		Integer last = lastAccess.put(addr, now);
+		if (last != null) {
+			//addresses accessed after last, plus addr itself
+			int distance = prefix(now - 1) - prefix(last) + 1;
+			if (distance <= maxSize) {
+				distances[distance]++;
+			}
+			add(last, -1);
+		}
+		add(now, 1);
+		now++;
+		accesses++;
+	}
+
+	/**
+	 * Returns the largest cache size of the curve.
+	 *
+	 * @return the largest cache size of the curve
+	 */
+	public int getMaxSize(){
+		return maxSize;
+	}
+
+	/**
+	 * Returns the number of accesses seen.
+	 *
+	 * @return the number of accesses seen
+	 */
+	public long getAccesses(){
+		return accesses;
+	}
+
+	//O(size)
+
+	/**
+	 * Returns how many accesses an LRU cache of the given size would have hit.
+	 *
+	 * @param size the cache size, from 1 to the largest size of the curve
+	 * @return the number of hits
+	 * @throws IllegalArgumentException if size is outside the curve
+	 */
+	public long hitsAt(int size){
+		if (size < 1 || size > maxSize) {
+			throw new IllegalArgumentException("Size must be in [1," + maxSize + "].");
+		}
+		long hits = 0;
+		for (int d = 1; d <= size; d++) {
+			hits += distances[d];
+		}
+		return hits;
+	}
+
+	//O(M)
+
+	/**
+	 * Returns the hits of an LRU cache of every size from 1 to the largest size of the curve.
+	 *
+	 * @return an array whose slot c holds the hits at size c; slot 0 is unused
+	 */
+	public long[] cumulativeHits(){
+		long[] hits = new long[maxSize + 1];
+		for (int d = 1; d <= maxSize; d++) {
+			hits[d] = hits[d - 1] + distances[d];
+		}
+		return hits;
+	}
+
+	/**
+	 * Renumbers the tracked addresses once the time range of the tree is used up.
+	 * Only the maxSize most recently accessed addresses are kept: any older one is deeper than
+	 * maxSize in the LRU stack, so its next access is a miss at every size of the curve anyway.
+	 */
+	private void compact(){
+		int live = lastAccess.size();
+		long[] order = new long[live];
+		String[] addrs = new String[live];
+		int i = 0;
+		for (Map.Entry<String, Integer> e : lastAccess.entrySet()) {
+			//sort by time, remembering where the address is
+			order[i] = ((long)e.getValue() << 32) | i;
+			addrs[i] = e.getKey();
+			i++;
+		}
+		Arrays.sort(order);
+
+		int keep = Math.min(live, maxSize);
+		lastAccess = new HashMap<>(keep * 2);
+		Arrays.fill(tree, 0);
+		now = 1;
+		for (int j = live - keep; j < live; j++) {
+			lastAccess.put(addrs[(int)order[j]], now);
+			add(now, 1);
+			now++;
+		}
+	}
+
+	/**
+	 * Adds delta to the mark at time t.
+	 *
+	 * @param t the time, at least 1
+	 * @param delta the change of the mark
+	 */
+	private void add(int t, int delta){
+		for (; t < tree.length; t += t & -t) {
+			tree[t] += delta;
+		}
+	}
+
+	/**
+	 * Returns the number of marks at times 1 to t.
+	 *
+	 * @param t the last time counted, 0 for none
+	 * @return the number of marks up to t
+	 */
+	private int prefix(int t){
+		int sum = 0;
+		for (; t > 0; t -= t & -t) {
+			sum += tree[t];
+		}
+		return sum;
+	}
+}
@@ -1,7 +1,6 @@
-//TODO: None. No changes allowed.
 
 /**
- * A generic class representing a Node in the linked list.
+ * A generic class representing a Node in the doubly linked list.
  * @param <T> the type of element in the linked list
  *
  * @author Y. Zhong
@@ -17,6 +16,11 @@
 	 * The Node's link to the next element in the linked list. 
 	 */	
 	private Node<T> next;
+
+	/**
+	 * The Node's link to the previous element in the linked list.
+	 */
+	private Node<T> prev;
 	
 	
 	/**
@@ -26,6 +30,7 @@
 	public Node(T data) {
 		this.data = data;
 		this.next = null;
+		this.prev = null;
 	}
 	
 	/**
@@ -59,6 +64,22 @@
 	public void setNext(Node<T> next) {
 		this.next = next;
 	}
+
+	/**
+	 * getter for the prev attribute.
+	 * @return prev attribute of this Node
+	 */
+	public Node<T> getPrev() {
+		return this.prev;
+	}
+
+	/**
+	 * setter for the prev attribute.
+	 * @param prev reference to set prev attribute
+	 */
+	public void setPrev(Node<T> prev) {
+		this.prev = prev;
+	}
 	
 	
 	/**
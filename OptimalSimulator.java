@@ -0,0 +1,220 @@
+import java.util.Arrays;
+
+/**
+ * Offline simulation of Belady's optimal replacement policy (OPT, also known as MIN).
+ * On a miss in a full cache OPT evicts the address whose next use is furthest in the future,
+ * which no online policy can beat, so its hit count is an upper bound for every other policy.
+ * The next use of every access is found beforehand by one backward pass over the trace, and the
+ * resident addresses sit in an indexed max-heap keyed by their next use, so each access is O(log n).
+ * @author Aidan Emden
+ */
+
+public class OptimalSimulator {
+
+	/**
+	 * The next use of an access whose address is never accessed again.
+	 */
+	private static final int NEVER = Integer.MAX_VALUE;
+
+	//O(N) where N is the length of the trace
+
+	/**
+	 * Finds when each access of a trace is followed by the next access to the same address.
+	 *
+	 * @param trace the access sequence
+	 * @return for each position of the trace, the position of the next access to the same address,
+	 *         or Integer.MAX_VALUE if there is none
+	 */
+	public static int[] nextUses(InMemoryTrace trace){
+		int length = trace.length();
+		int[] next = new int[length];
+		int[] seen = new int[trace.names().size()];
+		Arrays.fill(seen, NEVER);
+		for (int i = length - 1; i >= 0; i--) {
+			int id = trace.id(i);
+			next[i] = seen[id];
+			seen[id] = i;
+		}
+		return next;
+	}
+
+	//O(N log n) where N is the length of the trace and n is the cache size
+
+	/**
+	 * Simulates OPT over a whole trace.
+	 *
+	 * @param trace the access sequence
+	 * @param nextUses the next uses of the trace, as computed by nextUses
+	 * @param size cache size to simulate
+	 * @return the totals of the run
+	 * @throws IllegalArgumentException if size is not positive
+	 */
+	public static SimulationResult run(InMemoryTrace trace, int[] nextUses, int size){
+		if (size <= 0) {
+			throw new IllegalArgumentException("Size must be positive.");
+		}
+		long start = System.nanoTime();
+		int length = trace.length();
+		NextUseHeap resident = new NextUseHeap(Math.min(size, trace.names().size()), trace.names().size());
+		long hits = 0;
+		for (int i = 0; i < length; i++) {
+			int id = trace.id(i);
+			if (resident.contains(id)) {
+				hits++;
+				resident.update(id, nextUses[i]);
+			}
+			else {
+				if (resident.size() == size) {
+					resident.removeFurthest();
+				}
+				resident.add(id, nextUses[i]);
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		return new SimulationResult("OPT of size " + size, length, hits, elapsed);
+	}
+
+	/**
+	 * An indexed binary max-heap of ids keyed by their next use, so the id used furthest in the future
+	 * is on top and the key of any id can be changed in place.
+	 */
+	private static class NextUseHeap {
+
+		/**
+		 * The ids in heap order; slots 0 to size-1 are used.
+		 */
+		private int[] heap;
+
+		/**
+		 * The next use of each id in the heap.
+		 */
+		private int[] key;
+
+		/**
+		 * The slot of each id in the heap, or -1 if the id is not in it.
+		 */
+		private int[] slot;
+
+		/**
+		 * The number of ids in the heap.
+		 */
+		private int size;
+
+		/**
+		 * Constructor for an empty heap.
+		 *
+		 * @param capacity the most ids the heap will hold
+		 * @param ids the number of distinct ids
+		 */
+		private NextUseHeap(int capacity, int ids){
+			heap = new int[capacity];
+			key = new int[ids];
+			slot = new int[ids];
+			Arrays.fill(slot, -1);
+			size = 0;
+		}
+
+		/**
+		 * Returns the number of ids in the heap.
+		 *
+		 * @return the number of ids in the heap
+		 */
+		private int size(){
+			return size;
+		}
+
+		/**
+		 * Returns true if id is in the heap.
+		 *
+		 * @param id the id
+		 * @return true if id is in the heap
+		 */
+		private boolean contains(int id){
+			return slot[id] >= 0;
+		}
+
+		/**
+		 * Adds an id that is not in the heap.
+		 *
+		 * @param id the id
+		 * @param next its next use
+		 */
+		private void add(int id, int next){
+			key[id] = next;
+			heap[size] = id;
+			slot[id] = size;
+			size++;
+			siftUp(size - 1);
+		}
+
+		/**
+		 * Changes the next use of an id in the heap. Next uses only ever grow, so the id moves up.
+		 *
+		 * @param id the id
+		 * @param next its new next use
+		 */
+		private void update(int id, int next){
+			key[id] = next;
+			siftUp(slot[id]);
+		}
+
+		/**
+		 * Removes the id used furthest in the future.
+		 */
+		private void removeFurthest(){
+			slot[heap[0]] = -1;
+			size--;
+			if (size > 0) {
+				heap[0] = heap[size];
+				slot[heap[0]] = 0;
+				siftDown(0);
+			}
+		}
+
+		/**
+		 * Moves the id at slot i up until its parent has a later next use.
+		 *
+		 * @param i the slot
+		 */
+		private void siftUp(int i){
+			int id = heap[i];
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (key[heap[parent]] >= key[id]) {
+					break;
+				}
+				heap[i] = heap[parent];
+				slot[heap[i]] = i;
+				i = parent;
+			}
+			heap[i] = id;
+			slot[id] = i;
+		}
+
+		/**
+		 * Moves the id at slot i down until both its children have earlier next uses.
+		 *
+		 * @param i the slot
+		 */
+		private void siftDown(int i){
+			int id = heap[i];
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && key[heap[child + 1]] > key[heap[child]]) {
+					child++;
+				}
+				if (key[heap[child]] <= key[id]) {
+					break;
+				}
+				heap[i] = heap[child];
+				slot[heap[i]] = i;
+				i = child;
+			}
+			heap[i] = id;
+			slot[id] = i;
+		}
+	}
+}
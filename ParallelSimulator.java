@@ -0,0 +1,230 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates many (policy, size) configurations at the same time over one shared trace.
+ * The trace is read once into an InMemoryTrace and every configuration replays it
+ * on a fork-join pool with its own cache, so a batch takes about as long as its slowest run.
+ * Policies with an int-specialised engine replay the interned ids directly.
+ * @author Aidan Emden
+ */
+
+public class ParallelSimulator {
+
+	/**
+	 * Simulates every combination of the given policies and sizes over a trace.
+	 *
+	 * @param trace the shared access sequence
+	 * @param policies the cache replacement policy options to simulate
+	 * @param sizes the cache sizes to simulate
+	 * @param threads the number of worker threads
+	 * @return the totals of each run, indexed by policy then size
+	 * @throws IllegalArgumentException if threads is not positive
+	 */
+	public static SimulationResult[][] run(InMemoryTrace trace, int[] policies, int[] sizes, int threads){
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Thread count must be positive.");
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			List<Callable<SimulationResult>> tasks = new ArrayList<>();
+			for (int policy : policies) {
+				for (int size : sizes) {
+					tasks.add(() -> runOne(trace, policy, size));
+				}
+			}
+
+			List<Future<SimulationResult>> futures = pool.invokeAll(tasks);
+			SimulationResult[][] results = new SimulationResult[policies.length][sizes.length];
+			int i = 0;
+			for (int p = 0; p < policies.length; p++) {
+				for (int s = 0; s < sizes.length; s++) {
+					results[p][s] = futures.get(i++).get();
+				}
+			}
+			return results;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Simulation interrupted.", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Simulates Belady's optimal policy at each of the given sizes over a trace.
+	 *
+	 * @param trace the shared access sequence
+	 * @param sizes the cache sizes to simulate
+	 * @param threads the number of worker threads
+	 * @return the totals of each run, indexed by size
+	 * @throws IllegalArgumentException if threads is not positive
+	 */
+	public static SimulationResult[] runOptimal(InMemoryTrace trace, int[] sizes, int threads){
+		if (threads <= 0) {
+			throw new IllegalArgumentException("Thread count must be positive.");
+		}
+
+		int[] nextUses = OptimalSimulator.nextUses(trace);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			List<Callable<SimulationResult>> tasks = new ArrayList<>();
+			for (int size : sizes) {
+				tasks.add(() -> OptimalSimulator.run(trace, nextUses, size));
+			}
+
+			List<Future<SimulationResult>> futures = pool.invokeAll(tasks);
+			SimulationResult[] results = new SimulationResult[sizes.length];
+			for (int s = 0; s < sizes.length; s++) {
+				results[s] = futures.get(s).get();
+			}
+			return results;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Simulation interrupted.", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Reads a trace once and simulates every combination of the given policies and sizes over it,
+	 * then prints a table of hit rates with one row per size and one column per policy.
+	 *
+	 * @param filename the name (path to) an input file with the access sequence
+	 * @param policies the cache replacement policy options to simulate
+	 * @param sizes the cache sizes to simulate
+	 * @param threads the number of worker threads
+	 * @return the totals of each run, indexed by policy then size
+	 * @throws IOException If an input exception occurred with input filename
+	 */
+	public static SimulationResult[][] compare(String filename, int[] policies, int[] sizes, int threads) throws IOException {
+		return compare(filename, policies, sizes, threads, false);
+	}
+
+	/**
+	 * Reads a trace once and simulates every combination of the given policies and sizes over it,
+	 * then prints a table of hit rates with one row per size and one column per policy.
+	 * With optimal, the hit rate of Belady's optimal policy is added as a last column, followed by
+	 * a second table giving the hits of each policy as a percentage of the optimal hits.
+	 *
+	 * @param filename the name (path to) an input file with the access sequence
+	 * @param policies the cache replacement policy options to simulate
+	 * @param sizes the cache sizes to simulate
+	 * @param threads the number of worker threads
+	 * @param optimal whether to compare against Belady's optimal policy
+	 * @return the totals of each run, indexed by policy then size
+	 * @throws IOException If an input exception occurred with input filename
+	 */
+	public static SimulationResult[][] compare(String filename, int[] policies, int[] sizes, int threads, boolean optimal) throws IOException {
+		long start = System.nanoTime();
+		InMemoryTrace trace;
+		try (TraceSource source = Simulator.openTrace(filename)) {
+			trace = InMemoryTrace.load(source);
+		}
+		long loaded = System.nanoTime();
+		SimulationResult[][] results = run(trace, policies, sizes, threads);
+		SimulationResult[] best = optimal ? runOptimal(trace, sizes, threads) : null;
+		long done = System.nanoTime();
+
+		PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+		out.format("Compared %d configurations over %d accesses on %d threads (load %.3f s, simulate %.3f s).\n",
+			policies.length * sizes.length, trace.length(), threads, (loaded - start) / 1e9, (done - loaded) / 1e9);
+		out.println("---------------------------------------------");
+		out.print("Size");
+		for (int policy : policies) {
+			out.print("\t" + Simulator.cacheName(policy));
+		}
+		if (optimal) {
+			out.print("\tOPT");
+		}
+		out.println();
+		for (int s = 0; s < sizes.length; s++) {
+			out.print(sizes[s]);
+			for (int p = 0; p < policies.length; p++) {
+				out.format("\t%.2f%%", results[p][s].hitRate());
+			}
+			if (optimal) {
+				out.format("\t%.2f%%", best[s].hitRate());
+			}
+			out.println();
+		}
+
+		if (optimal) {
+			out.println("---------------------------------------------");
+			out.println("Hits as a percentage of OPT:");
+			out.print("Size");
+			for (int policy : policies) {
+				out.print("\t" + Simulator.cacheName(policy));
+			}
+			out.println();
+			for (int s = 0; s < sizes.length; s++) {
+				out.print(sizes[s]);
+				for (int p = 0; p < policies.length; p++) {
+					long bestHits = best[s].getHits();
+					out.format("\t%.2f%%", bestHits == 0 ? 100.0 : results[p][s].getHits() * 100.0 / bestHits);
+				}
+				out.println();
+			}
+		}
+		out.flush();
+		return results;
+	}
+
+	/**
+	 * Simulates one configuration over the shared trace without printing anything.
+	 *
+	 * @param trace the shared access sequence
+	 * @param policy cache replacement policy to simulate
+	 * @param size cache size to simulate
+	 * @return the totals of the run
+	 */
+	private static SimulationResult runOne(InMemoryTrace trace, int policy, int size){
+		int length = trace.length();
+		long hits = 0;
+		long start = System.nanoTime();
+		IntCache intCache = Simulator.createIntCache(policy, size);
+		if (intCache != null) {
+			for (int i = 0; i < length; i++) {
+				if (intCache.access(trace.id(i))) {
+					hits++;
+				}
+			}
+		}
+		else {
+			Cache cache = Simulator.createCache(policy, size);
+			for (int i = 0; i < length; i++) {
+				if (cache.access(trace.get(i))) {
+					hits++;
+				}
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		return new SimulationResult(Simulator.cacheName(policy) + " of size " + size, length, hits, elapsed);
+	}
+}
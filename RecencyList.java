@@ -0,0 +1,254 @@
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * RecencyList class is a hash-indexed doubly linked list of addresses.
+ * Addresses are kept in the order they were appended or last touched, from the
+ * first (oldest) to the last (most recent) one. The hash index maps each address
+ * to its entry so lookup, promotion and removal from either end are all O(1).
+ * @author Aidan Emden
+ */
+
+class RecencyList implements Iterable<String> {
+
+	/**
+	 * The Entry class, a doubly linked node holding one address.
+	 */
+	private static class Entry {
+
+		/**
+		 * The address stored in this entry.
+		 */
+		private String addr;
+
+		/**
+		 * The entry closer to the start of the list.
+		 */
+		private Entry prev;
+
+		/**
+		 * The entry closer to the end of the list.
+		 */
+		private Entry next;
+
+		/**
+		 * Constructor for an entry holding addr.
+		 *
+		 * @param addr the address of the entry
+		 */
+		private Entry(String addr){
+			this.addr = addr;
+		}
+	}
+
+	/**
+	 * The index from each address to its entry.
+	 */
+	private HashMap<String, Entry> index;
+
+	/**
+	 * The first (oldest) entry of the list.
+	 */
+	private Entry head;
+
+	/**
+	 * The last (most recent) entry of the list.
+	 */
+	private Entry tail;
+
+	/**
+	 * Constructor for an empty list.
+	 */
+	public RecencyList(){
+		index = new HashMap<>();
+		head = null;
+		tail = null;
+	}
+
+	/**
+	 * Iterator for the list.
+	 *
+	 * @return an iterator that traverses from the first to the last address
+	 */
+	@Override
+	public Iterator<String> iterator() {
+		return new Iterator<String>() {
+			Entry current = head;
+
+			public boolean hasNext(){
+				return current != null;
+			}
+
+			public String next(){
+				String toReturn = current.addr;
+				current = current.next;
+				return toReturn;
+			}
+		};
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the number of addresses in the list.
+	 *
+	 * @return the number of addresses in the list
+	 */
+	public int size(){
+		return index.size();
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if addr is in the list.
+	 *
+	 * @param addr the address to look up
+	 * @return true if addr is in the list, false otherwise
+	 */
+	public boolean contains(String addr){
+		return index.containsKey(addr);
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the first (oldest) address without removing it.
+	 *
+	 * @return the first address, or null if the list is empty
+	 */
+	public String getFirst(){
+		if(head == null){
+			return null;
+		}
+		return head.addr;
+	}
+
+	//O(1)
+
+	/**
+	 * Moves addr to the end of the list if it is present.
+	 *
+	 * @param addr the address to promote
+	 * @return true if addr was present, false otherwise
+	 */
+	public boolean touch(String addr){
+		Entry entry = index.get(addr);
+		if(entry == null){
+			return false;
+		}
+		if(entry != tail){
+			unlink(entry);
+			link(entry);
+		}
+		return true;
+	}
+
+	//O(1)
+
+	/**
+	 * Appends addr to the end of the list.
+	 * The caller must make sure addr is not already present.
+	 *
+	 * @param addr the address to append
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public void addLast(String addr){
+		if(addr == null){
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		Entry entry = new Entry(addr);
+		index.put(addr, entry);
+		link(entry);
+	}
+
+	//O(1)
+
+	/**
+	 * Removes and returns the first (oldest) address.
+	 *
+	 * @return the removed address, or null if the list is empty
+	 */
+	public String removeFirst(){
+		if(head == null){
+			return null;
+		}
+		Entry entry = head;
+		unlink(entry);
+		index.remove(entry.addr);
+		return entry.addr;
+	}
+
+	//O(1)
+
+	/**
+	 * Removes addr from the list if it is present.
+	 *
+	 * @param addr the address to remove
+	 * @return true if addr was present, false otherwise
+	 */
+	public boolean remove(String addr){
+		if(addr == null){
+			return false;
+		}
+		Entry entry = index.remove(addr);
+		if(entry == null){
+			return false;
+		}
+		unlink(entry);
+		return true;
+	}
+
+	//O(n) where n is the number of addresses in list
+
+	/**
+	 * Returns a string representing all addresses from first to last, separated by a single space.
+	 *
+	 * @return a string representing all addresses in the list
+	 */
+	public String listToString(){
+		StringBuilder sb = new StringBuilder();
+		Entry current = head;
+		while(current != null){
+			sb.append(current.addr).append(" ");
+			current = current.next;
+		}
+		return sb.toString().trim();
+	}
+
+	/**
+	 * Links a detached entry at the end of the list.
+	 *
+	 * @param entry the entry to link
+	 */
+	private void link(Entry entry){
+		entry.prev = tail;
+		entry.next = null;
+		if(tail == null){
+			head = entry;
+		} else {
+			tail.next = entry;
+		}
+		tail = entry;
+	}
+
+	/**
+	 * Detaches an entry from the list, leaving the index untouched.
+	 *
+	 * @param entry the entry to detach
+	 */
+	private void unlink(Entry entry){
+		if(entry.prev == null){
+			head = entry.next;
+		} else {
+			entry.prev.next = entry.next;
+		}
+		if(entry.next == null){
+			tail = entry.prev;
+		} else {
+			entry.next.prev = entry.prev;
+		}
+		entry.prev = null;
+		entry.next = null;
+	}
+}
@@ -0,0 +1,357 @@
+import java.util.Arrays;
+
+/**
+ * Cache implementing FIFO replacement policy in constant time per access.
+ * Insertion order is kept in a fixed-size ring buffer, and membership is tested through
+ * an open-addressing hash set (linear probing) that stores ring buffer slots.
+ * An invalidated address leaves a null tombstone in its slot, which eviction skips. The ring has
+ * twice as many slots as the capacity, and is compacted only once every slot is in use, which
+ * takes at least capacity tombstones, so invalidation is also constant time (amortised).
+ * No objects are allocated once the cache has been created.
+ * It produces exactly the same hits, misses and output as FifoCache.
+ * @author Aidan Emden
+ */
+
+public class RingFifoCache implements InvalidatableCache, CountingCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The number of items stored since the cache was created.
+	 */
+	private long insertions;
+
+	/**
+	 * The number of items evicted since the cache was created.
+	 */
+	private long evictions;
+
+	/**
+	 * The ring buffer of addresses in insertion order; invalidated slots hold null.
+	 */
+	private String[] ring;
+
+	/**
+	 * The ring buffer slot of the first in (oldest) address; it never holds a tombstone unless the cache is empty.
+	 */
+	private int first;
+
+	/**
+	 * The number of ring buffer slots in use from first on, addresses and tombstones alike.
+	 */
+	private int used;
+
+	/**
+	 * The number of addresses stored in cache.
+	 */
+	private int size;
+
+	/**
+	 * The hash set: each cell holds a ring buffer slot plus one, or 0 when the cell is empty.
+	 */
+	private int[] table;
+
+	/**
+	 * The mask used to map a hash onto the hash set (table length minus one).
+	 */
+	private int mask;
+
+	/**
+	 * Constructor for a cache with capacity as cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive or not below 2^30
+	 */
+	public RingFifoCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		if (cap >= (1 << 30)) {
+			throw new IllegalArgumentException("Capacity must be below 2^30.");
+		}
+		capacity = cap;
+		ring = new String[2 * cap];
+		first = 0;
+		used = 0;
+		size = 0;
+
+		//keep the hash set at most half full
+		//(tables stop growing at 2^30 cells, past that they just get fuller)
+		int tableSize = Integer.highestOneBit(Math.min(cap, 1 << 28)) << 2;
+		table = new int[tableSize];
+		mask = tableSize - 1;
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return size;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return insertions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	//O(1)
+
+	/**
+	 * Return item that will be evicted if the next access is a miss.
+	 *
+	 * @return item that will be evicted if the next access is a miss. Return null if no item will be evicted
+	 */
+	public String nextToReplace(){
+		if (size == 0) {
+			return null;
+		}
+		return ring[first];
+	}
+
+	//O(1) expected
+
+	/**
+	 * Determine whether the access to addr is a hit or miss.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		if(addr == null){
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+
+		if (slotOf(addr) >= 0) {
+			return true;
+		}
+
+		if (size == capacity) {
+			//evict the oldest address
+			deleteSlot(first);
+			ring[first] = null;
+			size--;
+			evictions++;
+			skipTombstones();
+		}
+		if (used == ring.length) {
+			compact();
+		}
+		int slot = (first + used) % ring.length;
+		used++;
+		size++;
+		ring[slot] = addr;
+		insertSlot(slot);
+		insertions++;
+		return false;
+	}
+
+	//O(1) expected
+
+	/**
+	 * Returns true if addr is in cache, without counting as an access.
+	 *
+	 * @param addr the address to look up
+	 * @return true if addr is in cache; false otherwise
+	 */
+	public boolean contains(String addr){
+		return addr != null && slotOf(addr) >= 0;
+	}
+
+	//O(1) amortised
+
+	/**
+	 * Removes addr from cache if it is there, without counting as an access.
+	 * Its slot is left as a tombstone.
+	 *
+	 * @param addr the address to remove
+	 * @return true if addr was in cache; false otherwise
+	 */
+	public boolean invalidate(String addr){
+		if (addr == null) {
+			return false;
+		}
+		int slot = slotOf(addr);
+		if (slot < 0) {
+			return false;
+		}
+		deleteSlot(slot);
+		ring[slot] = null;
+		size--;
+		if (slot == first) {
+			skipTombstones();
+		}
+		//tombstones at the young end are given back at once
+		while (used > 0 && ring[(first + used - 1) % ring.length] == null) {
+			used--;
+		}
+		return true;
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Return a string representing all items in cache, from first in to last in.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < used; i++) {
+			String addr = ring[(first + i) % ring.length];
+			if (addr != null) {
+				sb.append(addr);
+				sb.append(" ");
+			}
+		}
+		return sb.toString().trim();
+	}
+
+	/**
+	 * Returns the home cell of an address in the hash set.
+	 *
+	 * @param addr the address
+	 * @return the cell the probe sequence of addr starts at
+	 */
+	private int home(String addr){
+		int h = addr.hashCode();
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Returns the ring buffer slot of an address.
+	 *
+	 * @param addr the address
+	 * @return the slot holding addr, or -1 if addr is not in cache
+	 */
+	private int slotOf(String addr){
+		int cell = home(addr);
+		while (table[cell] != 0) {
+			if (ring[table[cell] - 1].equals(addr)) {
+				return table[cell] - 1;
+			}
+			cell = (cell + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds the cell of a newly filled ring buffer slot to the hash set.
+	 *
+	 * @param slot the ring buffer slot of the new address
+	 */
+	private void insertSlot(int slot){
+		int cell = home(ring[slot]);
+		while (table[cell] != 0) {
+			cell = (cell + 1) & mask;
+		}
+		table[cell] = slot + 1;
+	}
+
+	/**
+	 * Moves first past the tombstones at the old end of the ring.
+	 */
+	private void skipTombstones(){
+		while (used > 0 && ring[first] == null) {
+			first = (first + 1) % ring.length;
+			used--;
+		}
+	}
+
+	/**
+	 * Closes up the tombstones, keeping the addresses in order from first on, and rebuilds the hash set.
+	 */
+	private void compact(){
+		int kept = 0;
+		for (int i = 0; i < used; i++) {
+			int from = (first + i) % ring.length;
+			String addr = ring[from];
+			if (addr != null) {
+				//the write position never passes the read position, so nothing unread is overwritten
+				ring[from] = null;
+				ring[(first + kept) % ring.length] = addr;
+				kept++;
+			}
+		}
+		used = kept;
+		Arrays.fill(table, 0);
+		for (int i = 0; i < used; i++) {
+			insertSlot((first + i) % ring.length);
+		}
+	}
+
+	/**
+	 * Removes the cell holding a ring buffer slot from the hash set.
+	 * Later cells of the same probe run are shifted back so no tombstones are needed.
+	 *
+	 * @param slot the ring buffer slot whose address is being evicted
+	 */
+	private void deleteSlot(int slot){
+		int hole = home(ring[slot]);
+		while (table[hole] != slot + 1) {
+			hole = (hole + 1) & mask;
+		}
+
+		int cell = hole;
+		while (true) {
+			cell = (cell + 1) & mask;
+			if (table[cell] == 0) {
+				break;
+			}
+			int want = home(ring[table[cell] - 1]);
+			//move the cell back unless its home lies cyclically in (hole, cell]
+			if (((cell - want) & mask) >= ((cell - hole) & mask)) {
+				table[hole] = table[cell];
+				hole = cell;
+			}
+		}
+		table[hole] = 0;
+	}
+}
@@ -0,0 +1,420 @@
+/**
+ * Set-associative hardware cache, as found in CPUs.
+ * Each access is a hexadecimal byte address, split into a block offset (the low bits, ignored
+ * since the whole line is cached), a set index (the next bits) and a tag (the rest). The line can only
+ * live in one of the ways of its set, and each set runs its own FIFO, LRU or LFU replacement.
+ * Every set is a run of slots in flat primitive arrays, so no objects are allocated per access and a
+ * lookup only scans the ways of one set.
+ * @author Aidan Emden
+ */
+
+public class SetAssociativeCache implements CountingCache {
+
+	/**
+	 * The policy option of FIFO replacement within a set, as in Simulator.
+	 */
+	public static final int FIFO = 1;
+
+	/**
+	 * The policy option of LRU replacement within a set, as in Simulator.
+	 */
+	public static final int LRU = 2;
+
+	/**
+	 * The policy option of LFU replacement within a set, as in Simulator.
+	 */
+	public static final int LFU = 3;
+
+	/**
+	 * The replacement policy within each set.
+	 */
+	private int policy;
+
+	/**
+	 * The number of bytes in a line.
+	 */
+	private int lineSize;
+
+	/**
+	 * The number of sets.
+	 */
+	private int sets;
+
+	/**
+	 * The number of ways (lines) in each set.
+	 */
+	private int ways;
+
+	/**
+	 * The number of block offset bits, log2 of lineSize.
+	 */
+	private int offsetBits;
+
+	/**
+	 * The number of set index bits, log2 of sets.
+	 */
+	private int setBits;
+
+	/**
+	 * The tag of each slot; set s owns slots s*ways to s*ways+ways-1.
+	 */
+	private long[] tags;
+
+	/**
+	 * The time each slot was filled (FIFO) or last accessed (LRU, and LFU ties).
+	 */
+	private long[] stamps;
+
+	/**
+	 * The number of accesses to each slot since it was filled (LFU).
+	 */
+	private int[] counts;
+
+	/**
+	 * The number of valid slots of each set; they are the first ones of the set.
+	 */
+	private int[] fill;
+
+	/**
+	 * The number of valid lines in the cache.
+	 */
+	private int size;
+
+	/**
+	 * The number of items stored since the cache was created.
+	 */
+	private long insertions;
+
+	/**
+	 * The number of items evicted since the cache was created.
+	 */
+	private long evictions;
+
+	/**
+	 * The number of accesses so far, used as the clock of the stamps.
+	 */
+	private long time;
+
+	/**
+	 * The set of the latest access, or -1 before the first access.
+	 */
+	private int lastSet;
+
+	/**
+	 * Constructor for an empty cache of sets x ways lines of lineSize bytes.
+	 *
+	 * @param lineSize the number of bytes in a line, a power of two
+	 * @param sets the number of sets, a power of two
+	 * @param ways the number of ways in each set
+	 * @param policy the replacement policy within a set: FIFO, LRU or LFU
+	 * @throws IllegalArgumentException if the geometry or the policy is invalid
+	 */
+	public SetAssociativeCache(int lineSize, int sets, int ways, int policy){
+		if (lineSize <= 0 || Integer.bitCount(lineSize) != 1) {
+			throw new IllegalArgumentException("Line size must be a power of two.");
+		}
+		if (sets <= 0 || Integer.bitCount(sets) != 1) {
+			throw new IllegalArgumentException("Set count must be a power of two.");
+		}
+		if (ways <= 0) {
+			throw new IllegalArgumentException("Associativity must be positive.");
+		}
+		if ((long)sets * ways > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Too many lines.");
+		}
+		if (policy != FIFO && policy != LRU && policy != LFU) {
+			throw new IllegalArgumentException("Set policy can only be FIFO, LRU or LFU.");
+		}
+		this.lineSize = lineSize;
+		this.sets = sets;
+		this.ways = ways;
+		this.policy = policy;
+		offsetBits = Integer.numberOfTrailingZeros(lineSize);
+		setBits = Integer.numberOfTrailingZeros(sets);
+		tags = new long[sets * ways];
+		stamps = new long[sets * ways];
+		counts = policy == LFU ? new int[sets * ways] : null;
+		fill = new int[sets];
+		size = 0;
+		time = 0;
+		lastSet = -1;
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size == tags.length;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of lines allowed in cache.
+	 *
+	 * @return max number of lines allowed in cache
+	 */
+	public int capacity(){
+		return tags.length;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of lines stored in cache.
+	 *
+	 * @return number of lines stored in cache
+	 */
+	public int size(){
+		return size;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return insertions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	/**
+	 * Reports the number of bytes in a line.
+	 *
+	 * @return the line size
+	 */
+	public int getLineSize(){
+		return lineSize;
+	}
+
+	/**
+	 * Reports the number of sets.
+	 *
+	 * @return the number of sets
+	 */
+	public int getSets(){
+		return sets;
+	}
+
+	/**
+	 * Reports the number of ways in each set.
+	 *
+	 * @return the associativity
+	 */
+	public int getWays(){
+		return ways;
+	}
+
+	//O(1)
+
+	/**
+	 * Names the cache by its policy and geometry.
+	 *
+	 * @return the name, e.g. "Set-associative LRU Cache (64 sets x 8 ways x 64 B lines)"
+	 */
+	public String getName(){
+		return "Set-associative " + describe();
+	}
+
+	//O(1)
+
+	/**
+	 * Describes the cache by its policy and geometry, for use within a sentence.
+	 *
+	 * @return the description, e.g. "a set-associative LRU Cache (64 sets x 8 ways x 64 B lines)"
+	 */
+	public String getLabel(){
+		return "a set-associative " + describe();
+	}
+
+	/**
+	 * Returns the policy and geometry part of the name of the cache.
+	 *
+	 * @return e.g. "LRU Cache (64 sets x 8 ways x 64 B lines)"
+	 */
+	private String describe(){
+		String name = policy == FIFO ? "FIFO" : policy == LRU ? "LRU" : "LFU";
+		return String.format("%s Cache (%d sets x %d ways x %d B lines)", name, sets, ways, lineSize);
+	}
+
+	//O(w) where w is the associativity
+
+	/**
+	 * Reports the line that a miss in the set of the latest access would evict.
+	 * Only that set is considered, since a miss can only evict from its own set.
+	 *
+	 * @return the address of the line that would be evicted. Return null if that set is not full or nothing was accessed yet
+	 */
+	public String nextToReplace(){
+		if (lastSet < 0 || fill[lastSet] < ways) {
+			return null;
+		}
+		return lineName(lastSet, tags[victim(lastSet)]);
+	}
+
+	//O(w) where w is the associativity
+
+	/**
+	 * This is the method that accepts the addr as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 *
+	 * @param addr the hexadecimal byte address requested by the next access, with or without a 0x prefix
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null or not a hexadecimal address
+	 */
+	public boolean access(String addr){
+		return access(parseAddress(addr));
+	}
+
+	//O(w) where w is the associativity
+
+	/**
+	 * Accesses the line holding a byte address.
+	 *
+	 * @param address the byte address
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 */
+	public boolean access(long address){
+		long line = address >>> offsetBits;
+		int set = (int)line & (sets - 1);
+		long tag = line >>> setBits;
+		int base = set * ways;
+		int end = base + fill[set];
+		time++;
+		lastSet = set;
+
+		for (int slot = base; slot < end; slot++) {
+			if (tags[slot] == tag) {
+				if (policy != FIFO) {
+					stamps[slot] = time;
+				}
+				if (policy == LFU) {
+					counts[slot]++;
+				}
+				return true;
+			}
+		}
+
+		int slot;
+		if (fill[set] < ways) {
+			slot = end;
+			fill[set]++;
+			size++;
+		}
+		else {
+			slot = victim(set);
+			evictions++;
+		}
+		tags[slot] = tag;
+		insertions++;
+		stamps[slot] = time;
+		if (policy == LFU) {
+			counts[slot] = 1;
+		}
+		return false;
+	}
+
+	//O(w) where w is the associativity
+
+	/**
+	 * Picks the slot a miss in a full set evicts: the oldest (FIFO), the least recently used (LRU),
+	 * or the least frequently used, least recently used first on ties, as in BucketLfuCache (LFU).
+	 *
+	 * @param set the set
+	 * @return the slot of the victim
+	 */
+	private int victim(int set){
+		int base = set * ways;
+		int best = base;
+		for (int slot = base + 1; slot < base + ways; slot++) {
+			if (policy == LFU && counts[slot] != counts[best]) {
+				if (counts[slot] < counts[best]) {
+					best = slot;
+				}
+			}
+			else if (stamps[slot] < stamps[best]) {
+				best = slot;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the byte address where a line starts.
+	 *
+	 * @param set the set of the line
+	 * @param tag the tag of the line
+	 * @return the address, in hexadecimal with a 0x prefix
+	 */
+	private String lineName(int set, long tag){
+		return "0x" + Long.toHexString(((tag << setBits) | set) << offsetBits);
+	}
+
+	/**
+	 * Parses a hexadecimal byte address.
+	 *
+	 * @param addr the address, with or without a 0x prefix, of at most 16 digits
+	 * @return the address
+	 * @throws IllegalArgumentException if addr is null or not a hexadecimal address
+	 */
+	public static long parseAddress(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		int i = addr.startsWith("0x") || addr.startsWith("0X") ? 2 : 0;
+		if (i == addr.length() || addr.length() - i > 16) {
+			throw new IllegalArgumentException("Not a hexadecimal address: " + addr);
+		}
+		long address = 0;
+		for (; i < addr.length(); i++) {
+			int digit = Character.digit(addr.charAt(i), 16);
+			if (digit < 0) {
+				throw new IllegalArgumentException("Not a hexadecimal address: " + addr);
+			}
+			address = (address << 4) | digit;
+		}
+		return address;
+	}
+
+	//O(n) where n is the number of lines in cache
+
+	/**
+	 * Returns a string representing all lines in cache, set by set, skipping empty sets.
+	 * Each line is shown by the address where it starts.
+	 *
+	 * @return a string representing all lines in cache
+	 */
+	@Override
+	public String toString(){
+		StringBuilder sb = new StringBuilder();
+		for (int set = 0; set < sets; set++) {
+			if (fill[set] == 0) {
+				continue;
+			}
+			if (sb.length() > 0) {
+				sb.append(" | ");
+			}
+			sb.append("set ").append(set).append(":");
+			for (int slot = set * ways; slot < set * ways + fill[set]; slot++) {
+				sb.append(" ").append(lineName(set, tags[slot]));
+			}
+		}
+		return sb.toString();
+	}
+}
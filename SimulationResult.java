@@ -0,0 +1,122 @@
+/**
+ * The totals of one simulation run: how many accesses hit or missed and how long the run took.
+ * @author Aidan Emden
+ */
+
+public class SimulationResult {
+
+	/**
+	 * The description of the simulated cache, e.g. "LRU Cache of size 64".
+	 */
+	private String label;
+
+	/**
+	 * The number of accesses simulated.
+	 */
+	private long accesses;
+
+	/**
+	 * The number of accesses that hit.
+	 */
+	private long hits;
+
+	/**
+	 * The wall-clock time of the run in nanoseconds.
+	 */
+	private long elapsedNanos;
+
+	/**
+	 * Constructor for the totals of a finished run.
+	 *
+	 * @param label the description of the simulated cache
+	 * @param accesses the number of accesses simulated
+	 * @param hits the number of accesses that hit
+	 * @param elapsedNanos the wall-clock time of the run in nanoseconds
+	 */
+	public SimulationResult(String label, long accesses, long hits, long elapsedNanos){
+		this.label = label;
+		this.accesses = accesses;
+		this.hits = hits;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Returns the description of the simulated cache.
+	 *
+	 * @return the description of the simulated cache
+	 */
+	public String getLabel(){
+		return label;
+	}
+
+	/**
+	 * Returns the number of accesses simulated.
+	 *
+	 * @return the number of accesses simulated
+	 */
+	public long getAccesses(){
+		return accesses;
+	}
+
+	/**
+	 * Returns the number of accesses that hit.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits(){
+		return hits;
+	}
+
+	/**
+	 * Returns the number of accesses that missed.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses(){
+		return accesses - hits;
+	}
+
+	/**
+	 * Returns the wall-clock time of the run in nanoseconds.
+	 *
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos(){
+		return elapsedNanos;
+	}
+
+	/**
+	 * Returns the fraction of accesses that hit, as a percentage.
+	 *
+	 * @return the hit rate in percent, or 0 if nothing was simulated
+	 */
+	public double hitRate(){
+		if (accesses == 0){
+			return 0;
+		}
+		return (double)hits / accesses * 100;
+	}
+
+	/**
+	 * Returns how many accesses were simulated per second of wall-clock time.
+	 *
+	 * @return the throughput in accesses per second, or 0 if no time was measured
+	 */
+	public double accessesPerSecond(){
+		if (elapsedNanos <= 0){
+			return 0;
+		}
+		return accesses * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * Returns a multi-line summary of the run.
+	 *
+	 * @return the totals, hit rate, elapsed time and throughput of the run
+	 */
+	@Override
+	public String toString(){
+		return String.format("Total accesses: %d%nTotal hits: %d%nTotal misses: %d%nHit Rate: %.2f%%%nElapsed: %.3f s%nThroughput: %.0f accesses/s",
+			accesses, hits, getMisses(), hitRate(), elapsedNanos / 1e9, accessesPerSecond());
+	}
+}
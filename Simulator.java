@@ -3,8 +3,10 @@
 
 
 import java.util.Scanner;
-import java.io.File;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 
 /**
  * A class simulating cache accesses and maintenance.
@@ -12,64 +14,238 @@ import java.io.IOException;
  */
 public class Simulator{
 
+	/**
+	 * The number of cache replacement policy options.
+	 */
+	public static final int POLICY_COUNT = 8;
+
 	/**
 	 * This is the main method as the entrance of simulation. 
 	 * It sets the paramaters used in simulation.
+	 * Policies and sizes not given on the command line are asked for on standard input.
 	 * @param args command line args 
 	 */
 	public static void main(String[] args) {
 				
-		if (args.length == 1 || (args.length==2 && args[1].equals("-d"))){
+		SimulatorOptions options;
+		try {
+			options = SimulatorOptions.parse(args);
+		}
+		catch(IllegalArgumentException e) {
+			//Usage for incorrect format
+			System.out.println(e.getMessage());
+			System.out.println(SimulatorOptions.USAGE);
+			return;
+		}
+		
+		//loads and stores are only told apart by the write-modelling wrapper of a single cache
+		if (options.isWrites() && (options.getLevels() != null || options.getGeometry() != null || options.isCurve() || options.isOptimal())){
+			System.out.println("Write modelling (-w) cannot be combined with -l, -a, -m or -o.");
+			return;
+		}
+		
+		//latency is measured around a single cache
+		if (options.isLatency() && (options.getLevels() != null || options.getGeometry() != null || options.isCurve() || options.isOptimal() || options.isWrites())){
+			System.out.println("Access latency (-t) cannot be combined with -l, -a, -m, -o or -w.");
+			return;
+		}
+		
+		//a hierarchy brings its own policies and sizes, and runs on its own
+		if (options.getLevels() != null){
+			if (options.getGeometry() != null || options.isCurve() || options.isOptimal() || options.isDetailed()
+					|| options.getPolicies() != null || options.getSizes() != null){
+				System.out.println("The hierarchy mode (-l) cannot be combined with -a, -m, -o, -d, -p or -s.");
+				return;
+			}
+			try {
+				simulateHierarchy(options.getFilename(), options.getLevels(), options.getInclusion(), options.isQuiet());
+			}
+			catch(IllegalArgumentException e) {
+				System.out.println(e.getMessage());
+			}
+			catch(IOException e) {
+				e.printStackTrace();
+			}
+			return;
+		}
+		
+		//a set-associative cache only runs FIFO, LRU or LFU within its sets, and its geometry gives its size
+		if (options.getGeometry() != null && (options.isCurve() || options.isOptimal() || options.getSizes() != null)){
+			System.out.println("The set-associative mode (-a) cannot be combined with -m, -o or -s.");
+			return;
+		}
+		
+		//the hit-rate curve is for LRU only
+		if (options.isCurve()){
+			if (options.isOptimal() || options.isDetailed() || options.isQuiet()){
+				System.out.println("The hit-rate curve (-m) cannot be combined with -o, -d or -q.");
+				return;
+			}
+			if (options.getPolicies() != null && (options.getPolicies().length != 1 || options.getPolicies()[0] != 2)){
+				System.out.println("The hit-rate curve (-m) is only available for the LRU policy.");
+				return;
+			}
+			options.setPolicies(new int[]{2});
+		}
+		
+		//the optimal policy is compared in the summary table, which has no per-address record
+		if (options.isOptimal() && options.isDetailed()){
+			System.out.println("The optimal policy (-o) cannot be combined with -d.");
+			return;
+		}
+		
+		if (options.getPolicies() == null || (options.getSizes() == null && options.getGeometry() == null)){
 		
 			Scanner stdIn = new Scanner(System.in);
 			
-			//pick which cache replacement policy to simulate
-			System.out.println("Select the cache to simulate: ");
-			System.out.print(" 1-FIFO Cache; 2-LRU Cache; 3-LFU Cache.\n Option: ");
-			
-			int option = stdIn.nextInt();
-			stdIn.nextLine();
-			
-			while (option<1 || option>3){
-				System.out.println("You can only select option 1-3.");
+			if (options.getPolicies() == null){
+				//pick which cache replacement policy to simulate
 				System.out.println("Select the cache to simulate: ");
-				System.out.print(" 1-FIFO Cache; 2-LRU Cache; 3-LFU Cache.\n Option: ");
-				option = stdIn.nextInt();
+				System.out.print(policyMenu());
+				
+				int option = stdIn.nextInt();
 				stdIn.nextLine();
+				
+				while (option<1 || option>POLICY_COUNT){
+					System.out.println("You can only select option 1-" + POLICY_COUNT + ".");
+					System.out.println("Select the cache to simulate: ");
+					System.out.print(policyMenu());
+					option = stdIn.nextInt();
+					stdIn.nextLine();
+				}
+				options.setPolicies(new int[]{option});
 			}
 
-			//pick a cache size to simulate
-			System.out.print("Select cache size to simulate (positive integer in [1,256]): ");
-			
-			int size = stdIn.nextInt();
-			stdIn.nextLine();
-			
-			while (size<1 || size>256){
-				System.out.println("You can only select a size in [1,256].");
-				System.out.print("Select cache size to simulate (positive integer in [1,256]): ");
-				size = stdIn.nextInt();
+			if (options.getSizes() == null && options.getGeometry() == null){
+				//pick a cache size to simulate
+				System.out.print("Select cache size to simulate (positive integer): ");
+				
+				int size = stdIn.nextInt();
 				stdIn.nextLine();
+				
+				while (size<1){
+					System.out.println("You can only select a positive size.");
+					System.out.print("Select cache size to simulate (positive integer): ");
+					size = stdIn.nextInt();
+					stdIn.nextLine();
+				}
+				options.setSizes(new int[]{size});
 			}
+		}
 					
-			try {
-				//simulate with the specified cache replacement, cache size, 
-				//and a file for a seq of accesses
-				simulate(args[0], option, size, (args.length==2 && args[1].equals("-d")));
+		try {
+			if (options.isCurve()){
+				simulateCurve(options.getFilename(), options.getSizes());
+				return;
 			}
-			catch(IOException e) {
-				//System.out.println(e.toString());
-				e.printStackTrace();
+			
+			if (options.getGeometry() != null){
+				for (int option : options.getPolicies()){
+					simulateSetAssociative(options.getFilename(), options.getGeometry(), option, options.isQuiet(), options.isDetailed());
+				}
+				return;
+			}
+			
+			if (options.isWrites()){
+				for (int option : options.getPolicies()){
+					for (int size : options.getSizes()){
+						simulateWrites(options.getFilename(), option, size, options.isWriteBack(), options.isWriteAllocate(), 
+							options.isQuiet(), options.isDetailed());
+					}
+				}
 				return;
 			}
-						
+			
+			//the optimal policy needs the whole trace in memory, so it always goes through the comparison
+			if (options.isOptimal()){
+				ParallelSimulator.compare(options.getFilename(), options.getPolicies(), options.getSizes(), options.getThreads(), true);
+				return;
+			}
+			
+			//several summary-only runs share one in-memory trace and run in parallel
+			if (options.isQuiet() && !options.isDetailed() && !options.isLatency()
+					&& options.getPolicies().length * options.getSizes().length > 1){
+				ParallelSimulator.compare(options.getFilename(), options.getPolicies(), options.getSizes(), options.getThreads());
+				return;
+			}
+			
+			//simulate with the specified cache replacement, cache size, 
+			//and a file for a seq of accesses
+			for (int option : options.getPolicies()){
+				for (int size : options.getSizes()){
+					if (options.isQuiet())
+						simulateQuiet(options.getFilename(), option, size, options.isDetailed(), options.isLatency());
+					else
+						simulate(options.getFilename(), option, size, options.isDetailed(), options.isLatency());
+				}
+			}
 		}
-		
-		else {
-			//Usage for incorrect format
-			System.out.println("Usage: java Simulator InputFile [-d]");
+		catch(IllegalArgumentException e) {
+			//a malformed gen: workload spec
+			System.out.println(e.getMessage());
+			return;
+		}
+		catch(IOException e) {
+			//System.out.println(e.toString());
+			e.printStackTrace();
+			return;
 		}
 		
 	}
+
+	/**
+	 * This is the method that finds the option of a cache replacement policy by name.
+	 * @param name a policy name such as "lru", or its option number such as "2"
+	 * @return the policy option
+	 * @throws IllegalArgumentException if the policy is unknown
+	 */
+	public static int policyOption(String name){
+		for (int option = 1; option <= POLICY_COUNT; option++){
+			if (name.equals(String.valueOf(option)) || name.equalsIgnoreCase(policyName(option)))
+				return option;
+		}
+		throw new IllegalArgumentException("Unknown cache policy: " + name);
+	}
+
+	/**
+	 * This is the method that lists every cache replacement policy option for the interactive prompt.
+	 * @return the list of options followed by the prompt, e.g. " 1-FIFO Cache; 2-LRU Cache.\n Option: "
+	 */
+	public static String policyMenu(){
+		StringBuilder menu = new StringBuilder();
+		for (int option = 1; option <= POLICY_COUNT; option++){
+			menu.append(option == 1 ? " " : "; ").append(option).append("-").append(cacheName(option));
+		}
+		return menu.append(".\n Option: ").toString();
+	}
+
+	/**
+	 * This is the method that gives the short name of a cache replacement policy option.
+	 * @param cacheType cache replacement policy to simulate
+	 * @return the short name of the policy, e.g. "lru"
+	 */
+	public static String policyName(int cacheType){
+		switch (cacheType){
+			case 1: 
+				return "fifo";
+			case 2:
+				return "lru";
+			case 3:
+				return "lfu";
+			case 4:
+				return "clock";
+			case 5:
+				return "arc";
+			case 6:
+				return "wtinylfu";
+			case 7:
+				return "slru";
+			case 8:
+				return "2q";
+			default:
+				throw new IllegalArgumentException("cache option can only be 1-" + POLICY_COUNT + ".");
+		}
+	}
 	
 	/**
 	 * This is the method of the actual step-by-step simulation.
@@ -77,83 +253,483 @@ public class Simulator{
 	 * @param cacheType cache replacement policy to simulate
 	 * @param size cache size to simulate
 	 * @param detailed whether the detailed record of each access would be recorded
+	 * @param latency whether the access latency percentiles would be reported
 	 * @throws IOException If an input exception occurred with input filename
 	 */
-	public static void simulate(String filename, int cacheType, int size, boolean detailed) throws IOException{
+	public static void simulate(String filename, int cacheType, int size, boolean detailed, boolean latency) throws IOException{
 	
-		BasicList<String> addrQueue = fileToAddrQueue(filename);	
-		Cache cache;
-		BasicMap<String, Integer> accRecord=null;
-		BasicMap<String, Integer> hitRecord=null;
-		int hits=0;
-		
-		switch (cacheType){
-			case 1: 
-				cache = new FifoCache(size);
-				System.out.format("Simulating an FIFO Cache of size %d.\n", size);
-				break;
-			case 2:
-				cache = new LruCache(size);
-				System.out.format("Simulating a LRU Cache of size %d.\n", size);
-				break;
-			case 3:
-				cache = new LfuCache(size);
-				System.out.format("Simulating an LFU Cache of size %d.\n", size);
-				break;
-			default:
-				throw new IllegalArgumentException("cache option can only be 1-3.");
+		try (TraceSource trace = openTrace(filename)) {
+			simulate(trace, cacheType, size, detailed, latency);
 		}
-		System.out.println("---------------------------------------------");
+	}
+
+	/**
+	 * This is the method of the actual step-by-step simulation over a stream of accesses.
+	 * Accesses are fed to the cache as they are read, so the trace is never held in memory.
+	 * @param trace the source of the access sequence
+	 * @param cacheType cache replacement policy to simulate
+	 * @param size cache size to simulate
+	 * @param detailed whether the detailed record of each access would be recorded
+	 * @param latency whether the access latency percentiles would be reported
+	 * @throws IOException If an input exception occurred while reading the trace
+	 */
+	public static void simulate(TraceSource trace, int cacheType, int size, boolean detailed, boolean latency) throws IOException{
+	
+		simulate(trace, createCache(cacheType, size), cacheLabel(cacheType) + " of size " + size, detailed, latency);
+	}
+
+	/**
+	 * This is the method of the actual step-by-step simulation of a given cache over a stream of accesses.
+	 * @param trace the source of the access sequence
+	 * @param cache the empty cache to simulate
+	 * @param description the description of the cache, e.g. "a LRU Cache of size 64"
+	 * @param detailed whether the detailed record of each access would be recorded
+	 * @param latency whether the access latency percentiles would be reported
+	 * @throws IOException If an input exception occurred while reading the trace
+	 */
+	public static void simulate(TraceSource trace, Cache cache, String description, boolean detailed, boolean latency) throws IOException{
+	
+		CounterMap<String> accRecord=null;
+		CounterMap<String> hitRecord=null;
+		InstrumentedCache measured = new InstrumentedCache(cache);
+		
+		//buffer the per-access dump; it is by far the bulk of the work
+		PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+		out.format("Simulating %s.\n", description);
+		out.println("---------------------------------------------");
 		
 		if (detailed){
-			accRecord = new BasicMap<>();
-			hitRecord = new BasicMap<>();
+			accRecord = new CounterMap<>();
+			hitRecord = new CounterMap<>();
 		}
 		int index = 0;
-		for (String addr: addrQueue){
-			System.out.format("Access %d: %s", index, addr);
+		String addr;
+		while ((addr = trace.next()) != null){
+			out.format("Access %d: %s", index, addr);
 			if (detailed)
 				updateRecord(accRecord, addr);
 				
-			if (cache.access(addr)){			
-				System.out.println(" - Hit");
-				hits++;
+			if (measured.access(addr)){			
+				out.println(" - Hit");
 				if (detailed)
 					updateRecord(hitRecord, addr);
 			}
 			else{
-				System.out.println(" - Miss");
+				out.println(" - Miss");
 			}
-			System.out.println("cache content after access: ");
-			System.out.println(cache);
-			System.out.print(cache.isFull()?"cache full, ":"cache not full, ");
-			System.out.println("next to replace: "+ cache.nextToReplace());
-			System.out.println("---------------------------------------------");
+			out.println("cache content after access: ");
+			out.println(cache);
+			out.print(cache.isFull()?"cache full, ":"cache not full, ");
+			out.println("next to replace: "+ cache.nextToReplace());
+			out.println("---------------------------------------------");
 			index++;
 		}
 		
-		System.out.format("Hit Rate: %.2f%%\n", (double)hits/(index+1)*100 );
+		CacheStats stats = measured.stats();
+		out.format("Hit Rate: %.2f%%\n", stats.hitRate());
+		if (latency)
+			out.println("Access latency: " + stats.getLatency());
+
+		if (detailed){
+			out.println("Accesses: "+ accRecord);
+			out.println("Hits: "+ hitRecord);
+		}
+		out.flush();
+	
+	}
+
+	/**
+	 * This is the method of the summary-only simulation.
+	 * @param filename the name (path to) an input file with the access sequence
+	 * @param cacheType cache replacement policy to simulate
+	 * @param size cache size to simulate
+	 * @param detailed whether the detailed record of each access would be recorded
+	 * @param latency whether the access latency percentiles would be reported
+	 * @return the totals of the run
+	 * @throws IOException If an input exception occurred with input filename
+	 */
+	public static SimulationResult simulateQuiet(String filename, int cacheType, int size, boolean detailed, boolean latency) throws IOException{
+	
+		try (TraceSource trace = openTrace(filename)) {
+			return simulateQuiet(trace, cacheType, size, detailed, latency);
+		}
+	}
+
+	/**
+	 * This is the method of the summary-only simulation over a stream of accesses.
+	 * Nothing is printed per access; only the totals of the run are reported.
+	 * @param trace the source of the access sequence
+	 * @param cacheType cache replacement policy to simulate
+	 * @param size cache size to simulate
+	 * @param detailed whether the detailed record of each access would be recorded
+	 * @param latency whether the access latency percentiles would be reported
+	 * @return the totals of the run
+	 * @throws IOException If an input exception occurred while reading the trace
+	 */
+	public static SimulationResult simulateQuiet(TraceSource trace, int cacheType, int size, boolean detailed, boolean latency) throws IOException{
+	
+		return simulateQuiet(trace, createCache(cacheType, size), cacheName(cacheType) + " of size " + size,
+			cacheLabel(cacheType) + " of size " + size, detailed, latency);
+	}
 
+	/**
+	 * This is the method of the summary-only simulation of a given cache over a stream of accesses.
+	 * Latency is only measured on request, as timing each access slows the run down.
+	 * @param trace the source of the access sequence
+	 * @param cache the empty cache to simulate
+	 * @param name the name of the cache, e.g. "LRU Cache of size 64"
+	 * @param description the description of the cache, e.g. "a LRU Cache of size 64"
+	 * @param detailed whether the detailed record of each access would be recorded
+	 * @param latency whether the access latency percentiles would be reported
+	 * @return the totals of the run
+	 * @throws IOException If an input exception occurred while reading the trace
+	 */
+	public static SimulationResult simulateQuiet(TraceSource trace, Cache cache, String name, String description, boolean detailed, boolean latency) throws IOException{
+	
+		CounterMap<String> accRecord=null;
+		CounterMap<String> hitRecord=null;
+		InstrumentedCache measured = null;
+		if (latency){
+			measured = new InstrumentedCache(cache);
+			cache = measured;
+		}
+		if (detailed){
+			accRecord = new CounterMap<>();
+			hitRecord = new CounterMap<>();
+		}
+		
+		long accesses = 0;
+		long hits = 0;
+		long start = System.nanoTime();
+		String addr;
+		if (detailed){
+			while ((addr = trace.next()) != null){
+				updateRecord(accRecord, addr);
+				if (cache.access(addr)){
+					hits++;
+					updateRecord(hitRecord, addr);
+				}
+				accesses++;
+			}
+		}
+		else{
+			while ((addr = trace.next()) != null){
+				if (cache.access(addr))
+					hits++;
+				accesses++;
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		
+		SimulationResult result = new SimulationResult(name, accesses, hits, elapsed);
+		System.out.format("Simulating %s.\n", description);
+		System.out.println("---------------------------------------------");
+		System.out.println(result);
+		if (latency)
+			System.out.println("Access latency: " + measured.stats().getLatency());
 		if (detailed){
 			System.out.println("Accesses: "+ accRecord);
 			System.out.println("Hits: "+ hitRecord);
 		}
+		return result;
+	}
+
+	/**
+	 * This is the method that simulates a set-associative hardware cache over the addresses of the input file.
+	 * @param filename the name (path to) an input file with a sequence of hexadecimal byte addresses
+	 * @param geometry the line size, set count and associativity of the cache
+	 * @param cacheType cache replacement policy within each set: 1, 2 or 3
+	 * @param quiet whether only the totals of the run are reported
+	 * @param detailed whether the detailed record of each access would be recorded
+	 * @throws IOException If an input exception occurred with input filename
+	 */
+	public static void simulateSetAssociative(String filename, int[] geometry, int cacheType, boolean quiet, boolean detailed) throws IOException{
 	
+		if (cacheType < 1 || cacheType > 3)
+			throw new IllegalArgumentException("The set-associative mode (-a) only supports fifo, lru and lfu.");
+		SetAssociativeCache cache = new SetAssociativeCache(geometry[0], geometry[1], geometry[2], cacheType);
+		try (TraceSource trace = openTrace(filename)) {
+			if (quiet)
+				simulateQuiet(trace, cache, cache.getName(), cache.getLabel(), detailed, false);
+			else
+				simulate(trace, cache, cache.getLabel(), detailed, false);
+		}
 	}
+
+	/**
+	 * This is the method that simulates loads and stores over the input file, and reports the write traffic.
+	 * Tokens prefixed by "W:" are writes; all other tokens, optionally prefixed by "R:", are reads.
+	 * @param filename the name (path to) an input file with the access sequence
+	 * @param cacheType cache replacement policy to simulate: 1, 2 or 3
+	 * @param size cache size to simulate
+	 * @param writeBack true for write-back, false for write-through
+	 * @param writeAllocate true for write-allocate, false for no-write-allocate
+	 * @param quiet whether only the totals of the run are reported
+	 * @param detailed whether the detailed record of each access would be recorded
+	 * @return the simulated cache, with its write counters
+	 * @throws IOException If an input exception occurred with input filename
+	 */
+	public static WritePolicyCache simulateWrites(String filename, int cacheType, int size, boolean writeBack, 
+			boolean writeAllocate, boolean quiet, boolean detailed) throws IOException{
 	
+		Cache inner = createCache(cacheType, size);
+		if (!(inner instanceof InvalidatableCache))
+			throw new IllegalArgumentException("Write modelling (-w) only supports fifo, lru and lfu.");
+		WritePolicyCache cache = new WritePolicyCache((InvalidatableCache)inner, writeBack, writeAllocate);
+		try (TraceSource trace = openTrace(filename)) {
+			if (quiet)
+				simulateQuiet(trace, cache, cacheName(cacheType) + " of size " + size, cacheLabel(cacheType) + " of size " + size, detailed, false);
+			else
+				simulate(trace, cache, cacheLabel(cacheType) + " of size " + size, detailed, false);
+		}
+		System.out.println(cache.report());
+		return cache;
+	}
+
+	/**
+	 * This is the method that simulates a hierarchy of caches over the input file in a single pass,
+	 * reporting the hit rate of every level.
+	 * @param filename the name (path to) an input file with the access sequence
+	 * @param levels the policy option and size of each level, L1 first; policies can only be 1, 2 or 3
+	 * @param inclusion the inclusion policy of the hierarchy, as in CacheHierarchy
+	 * @param quiet whether only the totals of the run are reported
+	 * @return the simulated hierarchy, with its counters
+	 * @throws IOException If an input exception occurred with input filename
+	 */
+	public static CacheHierarchy simulateHierarchy(String filename, int[][] levels, int inclusion, boolean quiet) throws IOException{
+	
+		InvalidatableCache[] caches = new InvalidatableCache[levels.length];
+		StringBuilder description = new StringBuilder();
+		for (int i = 0; i < levels.length; i++){
+			Cache cache = createCache(levels[i][0], levels[i][1]);
+			if (!(cache instanceof InvalidatableCache))
+				throw new IllegalArgumentException("The hierarchy mode (-l) only supports fifo, lru and lfu levels.");
+			caches[i] = (InvalidatableCache)cache;
+			description.append(i == 0 ? "" : ", ").append("L").append(i + 1).append(" ")
+				.append(cacheName(levels[i][0])).append(" of size ").append(levels[i][1]);
+		}
+		CacheHierarchy hierarchy = new CacheHierarchy(caches, inclusion);
+		
+		PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+		out.format("Simulating a %s cache hierarchy of %s.\n", CacheHierarchy.inclusionName(inclusion), description);
+		out.println("---------------------------------------------");
+		
+		long accesses = 0;
+		long start = System.nanoTime();
+		try (TraceSource trace = openTrace(filename)) {
+			String addr;
+			while ((addr = trace.next()) != null){
+				int level = hierarchy.access(addr);
+				if (!quiet){
+					out.format("Access %d: %s", accesses, addr);
+					out.println(level < levels.length ? " - L" + (level + 1) + " Hit" : " - Miss");
+					out.println("cache content after access: ");
+					out.println(hierarchy);
+					out.println("---------------------------------------------");
+				}
+				accesses++;
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		
+		out.println("Level\tPolicy\tSize\tAccesses\tHits\tHit Rate\tEvictions");
+		for (int i = 0; i < levels.length; i++){
+			long reached = hierarchy.getAccesses(i);
+			out.format("L%d\t%s\t%d\t%d\t%d\t%.2f%%\t%d\n", i + 1, cacheName(levels[i][0]), levels[i][1],
+				reached, hierarchy.getHits(i), reached == 0 ? 0.0 : hierarchy.getHits(i) * 100.0 / reached, 
+				hierarchy.getEvictions(i));
+		}
+		out.println("---------------------------------------------");
+		long memory = hierarchy.getMemoryAccesses();
+		out.println("Total accesses: " + accesses);
+		out.println("Memory accesses: " + memory);
+		if (inclusion == CacheHierarchy.INCLUSIVE)
+			out.println("Back-invalidations: " + hierarchy.getBackInvalidations());
+		out.format("Hit Rate: %.2f%%\n", accesses == 0 ? 0.0 : (accesses - memory) * 100.0 / accesses);
+		out.format("Elapsed: %.3f s\n", elapsed / 1e9);
+		out.flush();
+		return hierarchy;
+	}
+
+	/**
+	 * This is the method that reports the LRU hit rate of many cache sizes in a single pass.
+	 * If only one size is given, every size from 1 to it is reported; 
+	 * otherwise the given sizes are reported.
+	 * @param filename the name (path to) an input file with the access sequence
+	 * @param sizes the cache sizes to report
+	 * @return the curve, covering every size up to the largest one given
+	 * @throws IOException If an input exception occurred with input filename
+	 */
+	public static MissRatioCurve simulateCurve(String filename, int[] sizes) throws IOException{
+		
+		int maxSize = 0;
+		for (int size : sizes)
+			maxSize = Math.max(maxSize, size);
+		
+		MissRatioCurve curve = new MissRatioCurve(maxSize);
+		long start = System.nanoTime();
+		try (TraceSource trace = openTrace(filename)) {
+			String addr;
+			while ((addr = trace.next()) != null)
+				curve.access(addr);
+		}
+		long elapsed = System.nanoTime() - start;
+		
+		PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+		out.format("LRU hit-rate curve up to size %d over %d accesses (%.3f s).\n", maxSize, curve.getAccesses(), elapsed / 1e9);
+		out.println("---------------------------------------------");
+		out.println("Size\tHits\tHit Rate");
+		long[] hits = curve.cumulativeHits();
+		long accesses = curve.getAccesses();
+		if (sizes.length == 1){
+			sizes = new int[maxSize];
+			for (int i = 0; i < maxSize; i++)
+				sizes[i] = i + 1;
+		}
+		for (int size : sizes){
+			out.format("%d\t%d\t%.2f%%\n", size, hits[size], accesses == 0 ? 0.0 : (double)hits[size] / accesses * 100);
+		}
+		out.flush();
+		return curve;
+	}
+
+	/**
+	 * This is the method that creates the cache for a replacement policy option.
+	 * @param cacheType cache replacement policy to simulate
+	 * @param size cache size to simulate
+	 * @return an empty cache of the given policy and size
+	 */
+	public static Cache createCache(int cacheType, int size){
+		switch (cacheType){
+			case 1: 
+				return new RingFifoCache(size);
+			case 2:
+				return new HashLruCache(size);
+			case 3:
+				return new BucketLfuCache(size);
+			case 4:
+				return new ClockCache(size);
+			case 5:
+				return new ArcCache(size);
+			case 6:
+				return new WTinyLfuCache(size);
+			case 7:
+				return new SlruCache(size);
+			case 8:
+				return new TwoQueueCache(size);
+			default:
+				throw new IllegalArgumentException("cache option can only be 1-" + POLICY_COUNT + ".");
+		}
+	}
+
+	/**
+	 * This is the method that creates the int-specialised cache for a replacement policy option.
+	 * @param cacheType cache replacement policy to simulate
+	 * @param size cache size to simulate
+	 * @return an empty int-keyed cache of the given policy and size, 
+	 *         or null if the policy has no int-specialised engine
+	 */
+	public static IntCache createIntCache(int cacheType, int size){
+		switch (cacheType){
+			case 1: 
+				return new IntFifoCache(size);
+			case 2:
+				return new IntLruCache(size);
+			case 3:
+				return new IntLfuCache(size);
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * This is the method that names the cache of a replacement policy option.
+	 * @param cacheType cache replacement policy to simulate
+	 * @return the name of the cache, e.g. "LRU Cache"
+	 */
+	public static String cacheName(int cacheType){
+		switch (cacheType){
+			case 1: 
+				return "FIFO Cache";
+			case 2:
+				return "LRU Cache";
+			case 3:
+				return "LFU Cache";
+			case 4:
+				return "CLOCK Cache";
+			case 5:
+				return "ARC Cache";
+			case 6:
+				return "W-TinyLFU Cache";
+			case 7:
+				return "SLRU Cache";
+			case 8:
+				return "2Q Cache";
+			default:
+				throw new IllegalArgumentException("cache option can only be 1-" + POLICY_COUNT + ".");
+		}
+	}
+
+	/**
+	 * This is the method that names the cache of a replacement policy option, with its article.
+	 * @param cacheType cache replacement policy to simulate
+	 * @return the name used when reporting a simulation, e.g. "a LRU Cache"
+	 */
+	public static String cacheLabel(int cacheType){
+		switch (cacheType){
+			case 1: 
+				return "an FIFO Cache";
+			case 2:
+				return "a LRU Cache";
+			case 3:
+				return "an LFU Cache";
+			case 4:
+				return "a CLOCK Cache";
+			case 5:
+				return "an ARC Cache";
+			case 6:
+				return "a W-TinyLFU Cache";
+			case 7:
+				return "an SLRU Cache";
+			case 8:
+				return "a 2Q Cache";
+			default:
+				throw new IllegalArgumentException("cache option can only be 1-" + POLICY_COUNT + ".");
+		}
+	}
+	
+	/**
+	 * This is the method that opens a streaming source of accesses over the input file.
+	 * Binary traces (see BinaryTrace) are recognised by their magic bytes; anything else is read as text.
+	 * A name of the form gen:SPEC is not a file but a synthetic workload (see Workload), generated as it is read.
+	 * @param filename the name (path to) an input file with a sequence of accesses, or gen:SPEC
+	 * @return a source yielding each access from the file in order
+	 * @throws IOException If an input exception occurred with input filename
+	 */
+	public static TraceSource openTrace(String filename) throws IOException {
+		if (filename.startsWith("gen:"))
+			return Workload.parse(filename.substring(4));
+		if (BinaryTraceReader.isBinaryTrace(filename))
+			return new BinaryTraceReader(filename);
+		return new TextTraceReader(filename);
+	}
+
 	/**
 	 * This is the method that construct a list of accesses from the input file.
+	 * Prefer openTrace, which does not hold the whole trace in memory.
 	 * @param filename the name (path to) an input file with a sequence of accesses
 	 * @return a list of Strings, each representing one access from the file
 	 * @throws IOException If an input exception occurred with input filename
 	 */
 	public static BasicList<String> fileToAddrQueue(String filename) throws IOException {
 		
-		Scanner s = new Scanner(new File(filename));		
 		BasicList<String> queue = new BasicList<>();
 		
-		while(s.hasNext()) {
-			queue.addLast(s.next());			
+		try (TraceSource trace = openTrace(filename)) {
+			String addr;
+			while ((addr = trace.next()) != null) {
+				queue.addLast(addr);
+			}
 		}
 		
 		return queue;
@@ -162,20 +738,14 @@ public class Simulator{
 	/**
 	 * This is the method that update the record of an address. 
 	 * Always increment the counter value of addr by 1 in the record.
-	 * @param record the record to be updated (a hash map)
+	 * @param record the record to be updated (a counter map)
 	 * @param addr the address involved in the updating	 
 	 */
-	public static void updateRecord(BasicMap<String, Integer> record, String addr){
+	public static void updateRecord(CounterMap<String> record, String addr){
 		if (record==null || addr==null)
 			return;
 			
-		Integer count = record.get(addr);
-		if (count==null){
-			record.put(addr, 1);
-		}
-		else{
-			record.put(addr,count+1);
-		}
+		record.increment(addr);
 	
 	}
 	
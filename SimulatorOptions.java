@@ -0,0 +1,550 @@
+import java.util.ArrayList;
+
+/**
+ * The command line options of the simulator.
+ * Besides the input file it accepts:
+ * <ul>
+ * <li>-p POLICIES: comma-separated policy names or option numbers, e.g. "lru,lfu" or "1,3"</li>
+ * <li>-s SIZES: comma-separated sizes or ranges, e.g. "64", "1K,4K" or "1K-1M".
+ *     A range doubles by default; "a-b:xN" multiplies by N and "a-b:+N" adds N at each step.
+ *     K, M and G suffixes stand for 2^10, 2^20 and 2^30</li>
+ * <li>-d: record accesses and hits per address</li>
+ * <li>-q: report only the totals of each run</li>
+ * <li>-m: report the LRU hit rate of every size up to the largest one in a single pass</li>
+ * <li>-a LINE:SETS:WAYS: simulate a set-associative hardware cache of that geometry instead,
+ *     e.g. "64:64:8" for 64-byte lines in 64 sets of 8 ways; the policies then apply within each set</li>
+ * <li>-l POLICY:SIZE,...: simulate a hierarchy of caches instead, L1 first, e.g. "lru:64,lru:1K,lfu:16K";
+ *     a miss at one level becomes an access at the next</li>
+ * <li>-i INCLUSION: how the levels of -l are kept: "inclusive", "exclusive" or "non-inclusive" (the default)</li>
+ * <li>-w WRITE[:ALLOCATE]: read "R:" and "W:" prefixes of the trace as loads and stores, and model
+ *     writes as "back" or "through", with "allocate" (the default) or "no-allocate" on a write miss</li>
+ * <li>-t: also report the p50, p99 and p999 access latency of each run</li>
+ * <li>-o: also simulate Belady's optimal offline policy, and report every policy as a percentage of it</li>
+ * <li>-j THREADS: how many threads compare several configurations at once with -q
+ *     (the number of processors by default)</li>
+ * </ul>
+ * Whatever of the policy and size is not given on the command line is asked for interactively.
+ * @author Aidan Emden
+ */
+
+public class SimulatorOptions {
+
+	/**
+	 * The usage message of the simulator.
+	 */
+	public static final String USAGE = "Usage: java Simulator InputFile [-p POLICIES] [-s SIZES] [-d] [-q] [-m] [-o] [-a LINE:SETS:WAYS] [-l POLICY:SIZE,...] [-i INCLUSION] [-w WRITE[:ALLOCATE]] [-t] [-j THREADS]";
+
+	/**
+	 * The name (path to) the input file with the access sequence.
+	 */
+	private String filename;
+
+	/**
+	 * The policy options to simulate, or null if they are to be asked for.
+	 */
+	private int[] policies;
+
+	/**
+	 * The cache sizes to simulate, or null if they are to be asked for.
+	 */
+	private int[] sizes;
+
+	/**
+	 * Whether the detailed record of each access would be recorded.
+	 */
+	private boolean detailed;
+
+	/**
+	 * Whether only the totals of each run are reported.
+	 */
+	private boolean quiet;
+
+	/**
+	 * Whether the access latency percentiles of each run are reported.
+	 */
+	private boolean latency;
+
+	/**
+	 * Whether the LRU hit-rate curve is reported instead of simulating each run.
+	 */
+	private boolean curve;
+
+	/**
+	 * Whether the policies are compared against Belady's optimal policy.
+	 */
+	private boolean optimal;
+
+	/**
+	 * The line size, set count and associativity of a set-associative cache, or null for a fully associative one.
+	 */
+	private int[] geometry;
+
+	/**
+	 * The policy option and size of each level of a cache hierarchy, L1 first, or null for a single cache.
+	 */
+	private int[][] levels;
+
+	/**
+	 * The inclusion policy of the cache hierarchy, as in CacheHierarchy.
+	 */
+	private int inclusion = CacheHierarchy.NON_INCLUSIVE;
+
+	/**
+	 * Whether the trace is read as loads and stores, modelling write traffic.
+	 */
+	private boolean writes;
+
+	/**
+	 * Whether stores are written to memory on eviction (true) or at once (false).
+	 */
+	private boolean writeBack = true;
+
+	/**
+	 * Whether a write miss fills the cache.
+	 */
+	private boolean writeAllocate = true;
+
+	/**
+	 * The number of threads used to compare several configurations.
+	 */
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Constructor for options with nothing but the input file set.
+	 *
+	 * @param filename the name (path to) the input file
+	 */
+	private SimulatorOptions(String filename){
+		this.filename = filename;
+	}
+
+	/**
+	 * Parses the command line of the simulator.
+	 *
+	 * @param args command line args
+	 * @return the parsed options
+	 * @throws IllegalArgumentException if the command line is malformed
+	 */
+	public static SimulatorOptions parse(String[] args){
+		if (args.length == 0 || args[0].startsWith("-")) {
+			throw new IllegalArgumentException("Missing input file.");
+		}
+		SimulatorOptions options = new SimulatorOptions(args[0]);
+		for (int i = 1; i < args.length; i++) {
+			switch (args[i]) {
+				case "-d":
+					options.detailed = true;
+					break;
+				case "-q":
+					options.quiet = true;
+					break;
+				case "-t":
+					options.latency = true;
+					break;
+				case "-m":
+					options.curve = true;
+					break;
+				case "-o":
+					options.optimal = true;
+					break;
+				case "-a":
+					options.geometry = parseGeometry(value(args, ++i, "-a"));
+					break;
+				case "-l":
+					options.levels = parseLevels(value(args, ++i, "-l"));
+					break;
+				case "-i":
+					options.inclusion = CacheHierarchy.inclusionOption(value(args, ++i, "-i").trim());
+					break;
+				case "-w":
+					options.parseWritePolicy(value(args, ++i, "-w"));
+					break;
+				case "-j":
+					options.threads = parseCount(value(args, ++i, "-j"));
+					break;
+				case "-p":
+					options.policies = parsePolicies(value(args, ++i, "-p"));
+					break;
+				case "-s":
+					options.sizes = parseSizes(value(args, ++i, "-s"));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+		}
+		return options;
+	}
+
+	/**
+	 * Returns the input file.
+	 *
+	 * @return the name (path to) the input file
+	 */
+	public String getFilename(){
+		return filename;
+	}
+
+	/**
+	 * Returns the policy options to simulate.
+	 *
+	 * @return the policy options, or null if none were given
+	 */
+	public int[] getPolicies(){
+		return policies;
+	}
+
+	/**
+	 * Sets the policy options to simulate.
+	 *
+	 * @param policies the policy options
+	 */
+	public void setPolicies(int[] policies){
+		this.policies = policies;
+	}
+
+	/**
+	 * Returns the cache sizes to simulate.
+	 *
+	 * @return the cache sizes, or null if none were given
+	 */
+	public int[] getSizes(){
+		return sizes;
+	}
+
+	/**
+	 * Sets the cache sizes to simulate.
+	 *
+	 * @param sizes the cache sizes
+	 */
+	public void setSizes(int[] sizes){
+		this.sizes = sizes;
+	}
+
+	/**
+	 * Returns whether the detailed record of each access would be recorded.
+	 *
+	 * @return true if accesses and hits are recorded per address
+	 */
+	public boolean isDetailed(){
+		return detailed;
+	}
+
+	/**
+	 * Returns whether only the totals of each run are reported.
+	 *
+	 * @return true for summary-only output
+	 */
+	public boolean isQuiet(){
+		return quiet;
+	}
+
+	/**
+	 * Returns whether the access latency percentiles of each run are reported.
+	 *
+	 * @return true to time every access
+	 */
+	public boolean isLatency(){
+		return latency;
+	}
+
+	/**
+	 * Returns whether the LRU hit-rate curve is reported instead of simulating each run.
+	 *
+	 * @return true for the one-pass hit-rate curve
+	 */
+	public boolean isCurve(){
+		return curve;
+	}
+
+	/**
+	 * Returns whether the policies are compared against Belady's optimal policy.
+	 *
+	 * @return true to simulate the optimal policy as well
+	 */
+	public boolean isOptimal(){
+		return optimal;
+	}
+
+	/**
+	 * Returns the geometry of the set-associative cache to simulate.
+	 *
+	 * @return the line size, set count and associativity, or null for fully associative caches
+	 */
+	public int[] getGeometry(){
+		return geometry;
+	}
+
+	/**
+	 * Parses the geometry of a set-associative cache.
+	 *
+	 * @param text the geometry as LINE:SETS:WAYS, e.g. "64:64:8"; sizes may use K, M and G suffixes
+	 * @return the line size, set count and associativity
+	 * @throws IllegalArgumentException if the geometry is malformed
+	 */
+	public static int[] parseGeometry(String text){
+		String[] parts = text.split(":");
+		if (parts.length != 3) {
+			throw new IllegalArgumentException("Geometry must be LINE:SETS:WAYS: " + text);
+		}
+		int[] geometry = new int[3];
+		for (int i = 0; i < 3; i++) {
+			geometry[i] = parseSize(parts[i]);
+		}
+		if (Integer.bitCount(geometry[0]) != 1 || Integer.bitCount(geometry[1]) != 1) {
+			throw new IllegalArgumentException("Line size and set count must be powers of two: " + text);
+		}
+		return geometry;
+	}
+
+	/**
+	 * Returns the levels of the cache hierarchy to simulate.
+	 *
+	 * @return the policy option and size of each level, L1 first, or null for a single cache
+	 */
+	public int[][] getLevels(){
+		return levels;
+	}
+
+	/**
+	 * Returns the inclusion policy of the cache hierarchy.
+	 *
+	 * @return the inclusion policy, as in CacheHierarchy
+	 */
+	public int getInclusion(){
+		return inclusion;
+	}
+
+	/**
+	 * Parses the levels of a cache hierarchy.
+	 *
+	 * @param text comma-separated POLICY:SIZE levels, L1 first, e.g. "lru:64,lfu:1K"
+	 * @return the policy option and size of each level
+	 * @throws IllegalArgumentException if a level is malformed or its policy is unknown
+	 */
+	public static int[][] parseLevels(String text){
+		String[] parts = text.split(",");
+		int[][] levels = new int[parts.length][];
+		for (int i = 0; i < parts.length; i++) {
+			String[] level = parts[i].split(":");
+			if (level.length != 2) {
+				throw new IllegalArgumentException("Level must be POLICY:SIZE: " + parts[i]);
+			}
+			levels[i] = new int[] {Simulator.policyOption(level[0].trim()), parseSize(level[1])};
+		}
+		return levels;
+	}
+
+	/**
+	 * Returns whether the trace is read as loads and stores, modelling write traffic.
+	 *
+	 * @return true if write traffic is modelled
+	 */
+	public boolean isWrites(){
+		return writes;
+	}
+
+	/**
+	 * Returns whether stores are written to memory on eviction.
+	 *
+	 * @return true for write-back, false for write-through
+	 */
+	public boolean isWriteBack(){
+		return writeBack;
+	}
+
+	/**
+	 * Returns whether a write miss fills the cache.
+	 *
+	 * @return true for write-allocate, false for no-write-allocate
+	 */
+	public boolean isWriteAllocate(){
+		return writeAllocate;
+	}
+
+	/**
+	 * Parses the write policy.
+	 *
+	 * @param text "back" or "through", optionally followed by ":allocate" or ":no-allocate"
+	 * @throws IllegalArgumentException if the write policy is malformed
+	 */
+	private void parseWritePolicy(String text){
+		String[] parts = text.trim().toLowerCase().split(":");
+		if (parts.length > 2) {
+			throw new IllegalArgumentException("Write policy must be WRITE[:ALLOCATE]: " + text);
+		}
+		switch (parts[0]) {
+			case "back":
+				writeBack = true;
+				break;
+			case "through":
+				writeBack = false;
+				break;
+			default:
+				throw new IllegalArgumentException("Write policy must be back or through: " + parts[0]);
+		}
+		if (parts.length == 2) {
+			switch (parts[1]) {
+				case "allocate":
+					writeAllocate = true;
+					break;
+				case "no-allocate":
+					writeAllocate = false;
+					break;
+				default:
+					throw new IllegalArgumentException("Write miss policy must be allocate or no-allocate: " + parts[1]);
+			}
+		}
+		writes = true;
+	}
+
+	/**
+	 * Returns the number of threads used to compare several configurations.
+	 *
+	 * @return the number of worker threads
+	 */
+	public int getThreads(){
+		return threads;
+	}
+
+	/**
+	 * Parses a comma-separated list of policy names or option numbers.
+	 *
+	 * @param text the list, e.g. "lru,lfu" or "1,3"
+	 * @return the policy options
+	 * @throws IllegalArgumentException if a policy is unknown
+	 */
+	public static int[] parsePolicies(String text){
+		String[] names = text.split(",");
+		int[] result = new int[names.length];
+		for (int i = 0; i < names.length; i++) {
+			result[i] = Simulator.policyOption(names[i].trim());
+		}
+		return result;
+	}
+
+	/**
+	 * Parses a comma-separated list of sizes and size ranges.
+	 *
+	 * @param text the list, e.g. "64", "1K,4K" or "1K-1M:x4"
+	 * @return the sizes in the order given
+	 * @throws IllegalArgumentException if a size is not a positive integer or a range is malformed
+	 */
+	public static int[] parseSizes(String text){
+		ArrayList<Integer> sizes = new ArrayList<>();
+		for (String part : text.split(",")) {
+			part = part.trim();
+			int dash = part.indexOf('-');
+			if (dash < 0) {
+				sizes.add(parseSize(part));
+				continue;
+			}
+
+			String step = "x2";
+			String bounds = part;
+			int colon = part.indexOf(':');
+			if (colon >= 0) {
+				step = part.substring(colon + 1);
+				bounds = part.substring(0, colon);
+			}
+			long from = parseSize(bounds.substring(0, dash));
+			long to = parseSize(bounds.substring(dash + 1));
+			if (from > to) {
+				throw new IllegalArgumentException("Empty size range: " + part);
+			}
+			boolean multiply = step.startsWith("x");
+			if (!multiply && !step.startsWith("+")) {
+				throw new IllegalArgumentException("Size step must be xN or +N: " + step);
+			}
+			long by = parseSize(step.substring(1));
+			if (multiply && by < 2) {
+				throw new IllegalArgumentException("Size factor must be at least 2: " + step);
+			}
+			for (long size = from; size <= to; size = multiply ? size * by : size + by) {
+				sizes.add((int)size);
+			}
+		}
+
+		int[] result = new int[sizes.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = sizes.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Parses one positive size with an optional K, M or G suffix.
+	 *
+	 * @param text the size, e.g. "300" or "64K"
+	 * @return the size
+	 * @throws IllegalArgumentException if the size is not a positive integer
+	 */
+	public static int parseSize(String text){
+		text = text.trim();
+		long unit = 1;
+		if (!text.isEmpty()) {
+			switch (Character.toUpperCase(text.charAt(text.length() - 1))) {
+				case 'K':
+					unit = 1L << 10;
+					break;
+				case 'M':
+					unit = 1L << 20;
+					break;
+				case 'G':
+					unit = 1L << 30;
+					break;
+				default:
+					break;
+			}
+		}
+		if (unit != 1) {
+			text = text.substring(0, text.length() - 1);
+		}
+		long size;
+		try {
+			size = Long.parseLong(text) * unit;
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Not a size: " + text);
+		}
+		if (size < 1 || size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Size must be a positive integer: " + text);
+		}
+		return (int)size;
+	}
+
+	/**
+	 * Parses a positive count.
+	 *
+	 * @param text the count
+	 * @return the count
+	 * @throws IllegalArgumentException if the count is not a positive integer
+	 */
+	private static int parseCount(String text){
+		try {
+			int count = Integer.parseInt(text.trim());
+			if (count > 0) {
+				return count;
+			}
+		}
+		catch (NumberFormatException e) {
+			//reported below
+		}
+		throw new IllegalArgumentException("Not a positive count: " + text);
+	}
+
+	/**
+	 * Returns the value following an option.
+	 *
+	 * @param args command line args
+	 * @param i the index of the value
+	 * @param option the option the value belongs to
+	 * @return the value
+	 * @throws IllegalArgumentException if the value is missing
+	 */
+	private static String value(String[] args, int i, String option){
+		if (i >= args.length) {
+			throw new IllegalArgumentException("Missing value for " + option);
+		}
+		return args[i];
+	}
+}
@@ -0,0 +1,192 @@
+/**
+ * Cache implementing segmented LRU (SLRU) replacement policy in constant time per access.
+ * New addresses enter a probation segment. An address hit while on probation moves to a protected
+ * segment, which takes a fixed share of the capacity; when the protected segment overflows its LRU
+ * address is demoted back to the MRU end of probation. Evictions take the LRU address of probation,
+ * so a scan of addresses seen only once churns probation and leaves the protected segment alone.
+ * Both segments are RecencyLists, so every step is O(1).
+ * @author Aidan Emden
+ */
+
+public class SlruCache implements CountingCache {
+
+	/**
+	 * The share of the capacity given to the protected segment by default.
+	 */
+	public static final double DEFAULT_PROTECTED_RATIO = 0.8;
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The number of items stored since the cache was created.
+	 */
+	private long insertions;
+
+	/**
+	 * The number of items evicted since the cache was created.
+	 */
+	private long evictions;
+
+	/**
+	 * The capacity of the protected segment.
+	 */
+	private int protectedCapacity;
+
+	/**
+	 * The probation segment, ordered from LRU to MRU.
+	 */
+	private RecencyList probation;
+
+	/**
+	 * The protected segment, ordered from LRU to MRU.
+	 */
+	private RecencyList protectedSegment;
+
+	/**
+	 * Constructor for a cache with capacity as cap and the default protected share.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public SlruCache(int cap){
+		this(cap, DEFAULT_PROTECTED_RATIO);
+	}
+
+	/**
+	 * Constructor for a cache with capacity as cap, of which protectedRatio is the protected segment.
+	 *
+	 * @param cap the capacity of the cache
+	 * @param protectedRatio the share of the capacity for the protected segment, from 0 to 1
+	 * @throws IllegalArgumentException if cap is not positive or protectedRatio is outside [0,1]
+	 */
+	public SlruCache(int cap, double protectedRatio){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		if (!(protectedRatio >= 0 && protectedRatio <= 1)) {
+			throw new IllegalArgumentException("Protected ratio must be in [0,1].");
+		}
+		capacity = cap;
+		protectedCapacity = (int)(cap * protectedRatio);
+		probation = new RecencyList();
+		protectedSegment = new RecencyList();
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size() == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return probation.size() + protectedSegment.size();
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return insertions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss.
+	 *
+	 * @return the LRU item of probation, or of the protected segment if probation is empty. Return null if the cache is empty
+	 */
+	public String nextToReplace(){
+		String victim = probation.getFirst();
+		return victim != null ? victim : protectedSegment.getFirst();
+	}
+
+	//O(1)
+
+	/**
+	 * This is the method that accepts the addr as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+
+		if (protectedSegment.touch(addr)) {
+			return true;
+		}
+		if (probation.remove(addr)) {
+			protectedSegment.addLast(addr);
+			if (protectedSegment.size() > protectedCapacity) {
+				probation.addLast(protectedSegment.removeFirst());
+			}
+			return true;
+		}
+
+		if (isFull()) {
+			if (probation.removeFirst() == null) {
+				protectedSegment.removeFirst();
+			}
+			evictions++;
+		}
+		probation.addLast(addr);
+		insertions++;
+		return false;
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache, probation then the protected segment, each from LRU to MRU.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		return "Probation: " + probation.listToString() + " | Protected: " + protectedSegment.listToString();
+	}
+}
@@ -18,7 +18,7 @@ public class SortedList<T extends Comparable<T>> extends BasicList<T> {
 	
 	// - if value is null, throw an IllegalArgumentException (with any error msg)
 	
-	//O(n) where n is the number of items in list
+	//O(n) where n is the number of items in list; O(1) if value is not smaller than the last one
 
 	/**
 	 * Adds a value to the list in ascending order.
@@ -33,16 +33,17 @@ public class SortedList<T extends Comparable<T>> extends BasicList<T> {
             throw new IllegalArgumentException();
         }
         Node<T> newNode = new Node<>(value);
-        if (head == null || head.getData().compareTo(value) >= 0) {
-            newNode.setNext(head);
-            head = newNode;
+        if (head == null || head.getData().compareTo(value) > 0) {
+            insertAfter(null, newNode);
+        } else if (tail.getData().compareTo(value) <= 0) {
+            //no larger value in list: append in O(1)
+            insertAfter(tail, newNode);
         } else {
             Node<T> current = head;
             while (current.getNext() != null && current.getNext().getData().compareTo(value) <= 0) {
                 current = current.getNext();
             }
-            newNode.setNext(current.getNext());
-            current.setNext(newNode);
+            insertAfter(current, newNode);
         }
     }
 		
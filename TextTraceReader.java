@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * TraceSource reading a whitespace-separated text trace such as seq1.txt.
+ * The file is read through a FileChannel into a fixed buffer and split by a hand-written byte scanner,
+ * so memory use stays constant however long the trace is.
+ * @author Aidan Emden
+ */
+
+public class TextTraceReader implements TraceSource {
+
+	/**
+	 * The number of bytes read from the file at a time.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The channel the trace is read from.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The buffer holding the bytes read but not scanned yet.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * The bytes of the token being scanned, which may span several buffer fills.
+	 */
+	private byte[] token;
+
+	/**
+	 * Whether the end of the file has been reached.
+	 */
+	private boolean eof;
+
+	/**
+	 * Constructor for a reader over the trace in filename.
+	 *
+	 * @param filename the name (path to) an input file with a sequence of accesses
+	 * @throws IOException If the file cannot be opened
+	 */
+	public TextTraceReader(String filename) throws IOException {
+		this(Paths.get(filename));
+	}
+
+	/**
+	 * Constructor for a reader over the trace in path.
+	 *
+	 * @param path the path to an input file with a sequence of accesses
+	 * @throws IOException If the file cannot be opened
+	 */
+	public TextTraceReader(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		buffer.flip();
+		token = new byte[64];
+		eof = false;
+	}
+
+	/**
+	 * Returns the next whitespace-separated token of the file.
+	 *
+	 * @return the next address, or null once the file is exhausted
+	 * @throws IOException If an input exception occurred while reading the file
+	 */
+	@Override
+	public String next() throws IOException {
+		byte[] bytes = buffer.array();
+
+		//skip leading whitespace
+		while (true) {
+			if (!buffer.hasRemaining() && !fill()) {
+				return null;
+			}
+			int pos = buffer.position();
+			int limit = buffer.limit();
+			while (pos < limit && isSpace(bytes[pos])) {
+				pos++;
+			}
+			buffer.position(pos);
+			if (pos < limit) {
+				break;
+			}
+		}
+
+		//collect the token, which ends at whitespace or at the end of the file
+		int length = 0;
+		while (true) {
+			int start = buffer.position();
+			int pos = start;
+			int limit = buffer.limit();
+			while (pos < limit && !isSpace(bytes[pos])) {
+				pos++;
+			}
+			int count = pos - start;
+			if (length + count > token.length) {
+				token = Arrays.copyOf(token, Math.max(token.length * 2, length + count));
+			}
+			System.arraycopy(bytes, start, token, length, count);
+			length += count;
+			buffer.position(pos);
+			if (pos < limit || !fill()) {
+				break;
+			}
+		}
+		return new String(token, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Closes the underlying file.
+	 *
+	 * @throws IOException If the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Refills the buffer from the file once everything in it has been scanned.
+	 *
+	 * @return true if new bytes were read, false at the end of the file
+	 * @throws IOException If an input exception occurred while reading the file
+	 */
+	private boolean fill() throws IOException {
+		if (eof) {
+			return false;
+		}
+		buffer.clear();
+		int read = 0;
+		while (read == 0) {
+			read = channel.read(buffer);
+		}
+		buffer.flip();
+		if (read < 0) {
+			eof = true;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if b is an ASCII whitespace byte.
+	 * Multi-byte UTF-8 sequences never contain such bytes, so splitting on them is safe.
+	 *
+	 * @param b the byte to test
+	 * @return true if b separates tokens
+	 */
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+	}
+}
@@ -0,0 +1,19 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A sequence of accesses that is read one address at a time.
+ * Sources stream their accesses so a trace never has to be held in memory as a whole.
+ * @author Aidan Emden
+ */
+
+public interface TraceSource extends Closeable {
+
+	/**
+	 * Returns the next address of the sequence.
+	 *
+	 * @return the next address, or null once the sequence is exhausted
+	 * @throws IOException If an input exception occurred while reading the sequence
+	 */
+	String next() throws IOException;
+}
@@ -0,0 +1,202 @@
+/**
+ * Cache implementing the full 2Q replacement policy in constant time per access.
+ * New addresses enter A1in, a FIFO queue of about a quarter of the capacity where hits change nothing.
+ * Addresses leaving A1in are remembered, without their data, in the ghost queue A1out.
+ * Only an address missed again while in A1out is considered hot and goes to Am, an LRU list of the rest of the cache.
+ * A scan therefore passes through A1in and A1out without disturbing Am.
+ * All three queues are RecencyLists, so every step is O(1).
+ * (Johnson and Shasha, "2Q: A Low Overhead High Performance Buffer Management Replacement Algorithm", VLDB 1994.)
+ * @author Aidan Emden
+ */
+
+public class TwoQueueCache implements CountingCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The number of items stored since the cache was created.
+	 */
+	private long insertions;
+
+	/**
+	 * The number of items evicted since the cache was created.
+	 */
+	private long evictions;
+
+	/**
+	 * The size A1in may reach before it gives up space, Kin in the paper.
+	 */
+	private int inCapacity;
+
+	/**
+	 * The number of addresses A1out remembers, Kout in the paper.
+	 */
+	private int outCapacity;
+
+	/**
+	 * The resident first-time addresses, in FIFO order.
+	 */
+	private RecencyList a1in;
+
+	/**
+	 * The ghost addresses recently evicted from A1in, in FIFO order.
+	 */
+	private RecencyList a1out;
+
+	/**
+	 * The resident hot addresses, ordered from LRU to MRU.
+	 */
+	private RecencyList am;
+
+	/**
+	 * Constructor for a cache with capacity as cap, with A1in at a quarter and A1out at half of cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public TwoQueueCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		capacity = cap;
+		inCapacity = Math.max(1, cap / 4);
+		outCapacity = Math.max(1, cap / 2);
+		a1in = new RecencyList();
+		a1out = new RecencyList();
+		am = new RecencyList();
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size() == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return a1in.size() + am.size();
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return insertions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss.
+	 *
+	 * @return the oldest item of A1in if A1in is over its share, otherwise the LRU item of Am. Return null if the cache is empty
+	 */
+	public String nextToReplace(){
+		if (a1in.size() > inCapacity || am.size() == 0) {
+			return a1in.getFirst();
+		}
+		return am.getFirst();
+	}
+
+	//O(1)
+
+	/**
+	 * This is the method that accepts the addr as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+
+		if (am.touch(addr) || a1in.contains(addr)) {
+			return true;
+		}
+
+		if (isFull()) {
+			reclaim();
+			evictions++;
+		}
+		if (a1out.remove(addr)) {
+			am.addLast(addr);
+		}
+		else {
+			a1in.addLast(addr);
+		}
+		insertions++;
+		return false;
+	}
+
+	//O(1)
+
+	/**
+	 * Frees one slot: the oldest address of A1in moves to A1out if A1in is over its share,
+	 * otherwise the LRU address of Am is dropped.
+	 */
+	private void reclaim(){
+		if (a1in.size() > inCapacity || am.size() == 0) {
+			a1out.addLast(a1in.removeFirst());
+			if (a1out.size() > outCapacity) {
+				a1out.removeFirst();
+			}
+		}
+		else {
+			am.removeFirst();
+		}
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache, A1in from oldest to newest then Am from LRU to MRU.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		return "A1in: " + a1in.listToString() + " | Am: " + am.listToString();
+	}
+}
@@ -0,0 +1,253 @@
+/**
+ * Cache implementing W-TinyLFU replacement policy in constant time per access.
+ * New addresses enter a small LRU admission window (about 1% of the capacity). An address pushed
+ * out of the window becomes a candidate for the main region, a segmented LRU of a probation segment
+ * and a protected segment (80% of the main region) for addresses hit again while on probation.
+ * When the main region is full, the candidate is only admitted if a FrequencySketch estimates it
+ * was seen more often than the LRU address of probation, which is evicted instead.
+ * So a burst of one-hit wonders stays in the window and cannot push out popular addresses, and
+ * because the sketch ages, addresses that stop being popular are eventually let go.
+ * (Einziger, Friedman and Manes, "TinyLFU: A Highly Efficient Cache Admission Policy", 2017.)
+ * @author Aidan Emden
+ */
+
+public class WTinyLfuCache implements CountingCache {
+
+	/**
+	 * The capacity of the cache.
+	 */
+	private int capacity;
+
+	/**
+	 * The number of items stored since the cache was created.
+	 */
+	private long insertions;
+
+	/**
+	 * The number of items evicted since the cache was created.
+	 */
+	private long evictions;
+
+	/**
+	 * The capacity of the admission window.
+	 */
+	private int windowCapacity;
+
+	/**
+	 * The capacity of the main region, probation and protected together.
+	 */
+	private int mainCapacity;
+
+	/**
+	 * The capacity of the protected segment.
+	 */
+	private int protectedCapacity;
+
+	/**
+	 * The admission window, ordered from LRU to MRU.
+	 */
+	private RecencyList window;
+
+	/**
+	 * The probation segment of the main region, ordered from LRU to MRU.
+	 */
+	private RecencyList probation;
+
+	/**
+	 * The protected segment of the main region, ordered from LRU to MRU.
+	 */
+	private RecencyList protectedSegment;
+
+	/**
+	 * The estimated recent frequency of every address accessed.
+	 */
+	private FrequencySketch sketch;
+
+	/**
+	 * Constructor for a cache with capacity as cap.
+	 *
+	 * @param cap the capacity of the cache
+	 * @throws IllegalArgumentException if cap is not positive
+	 */
+	public WTinyLfuCache(int cap){
+		if (cap <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive.");
+		}
+		capacity = cap;
+		windowCapacity = Math.max(1, cap / 100);
+		mainCapacity = cap - windowCapacity;
+		protectedCapacity = (int)(mainCapacity * 0.8);
+		window = new RecencyList();
+		probation = new RecencyList();
+		protectedSegment = new RecencyList();
+		sketch = new FrequencySketch(cap);
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return size() == capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return capacity;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return window.size() + probation.size() + protectedSegment.size();
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache since it was created.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return insertions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items evicted from cache to make room since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the item that will be evicted if the next access is a miss: the loser of the admission
+	 * contest between the LRU address of the window and the LRU address of the main region.
+	 * Counting the missing address in the sketch could, rarely, change the outcome.
+	 *
+	 * @return item that will be evicted if the next access is a miss. Return null if no item will be evicted
+	 */
+	public String nextToReplace(){
+		if (window.size() < windowCapacity) {
+			return null;
+		}
+		String candidate = window.getFirst();
+		if (probation.size() + protectedSegment.size() < mainCapacity) {
+			return null;
+		}
+		String victim = mainVictim();
+		if (victim == null || !admit(candidate, victim)) {
+			return candidate;
+		}
+		return victim;
+	}
+
+	//O(1)
+
+	/**
+	 * This is the method that accepts the addr as the next access to cache and performs necessary maintenance based on a cache replacement policy.
+	 *
+	 * @param addr the address requested by the next access
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		sketch.increment(addr.hashCode());
+
+		if (window.touch(addr) || protectedSegment.touch(addr)) {
+			return true;
+		}
+		if (probation.remove(addr)) {
+			//a second hit in the main region earns protection
+			protectedSegment.addLast(addr);
+			if (protectedSegment.size() > protectedCapacity) {
+				probation.addLast(protectedSegment.removeFirst());
+			}
+			return true;
+		}
+
+		window.addLast(addr);
+		insertions++;
+		if (window.size() > windowCapacity) {
+			String candidate = window.removeFirst();
+			if (probation.size() + protectedSegment.size() < mainCapacity) {
+				probation.addLast(candidate);
+			}
+			else {
+				//either the victim or the rejected candidate leaves the cache
+				evictions++;
+				String victim = mainVictim();
+				if (victim != null && admit(candidate, victim)) {
+					if (!probation.remove(victim)) {
+						protectedSegment.remove(victim);
+					}
+					probation.addLast(candidate);
+				}
+			}
+		}
+		return false;
+	}
+
+	//O(1)
+
+	/**
+	 * Returns the address of the main region that would make room for a candidate.
+	 *
+	 * @return the LRU address of probation, or of the protected segment if probation is empty,
+	 *         or null if the main region is empty
+	 */
+	private String mainVictim(){
+		String victim = probation.getFirst();
+		return victim != null ? victim : protectedSegment.getFirst();
+	}
+
+	//O(1)
+
+	/**
+	 * Decides whether a candidate leaving the window should replace a victim of the main region.
+	 *
+	 * @param candidate the address leaving the window
+	 * @param victim the address of the main region it would replace
+	 * @return true if the candidate is estimated to be more frequent than the victim
+	 */
+	private boolean admit(String candidate, String victim){
+		return sketch.frequency(candidate.hashCode()) > sketch.frequency(victim.hashCode());
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Returns a string representing all items in cache: the window, probation and the protected segment,
+	 * each from LRU to MRU.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		return "Window: " + window.listToString() + " | Probation: " + probation.listToString()
+			+ " | Protected: " + protectedSegment.listToString();
+	}
+}
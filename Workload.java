@@ -0,0 +1,734 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic access sequence, generated one access at a time so nothing is ever materialised.
+ * Every run is reproducible from its seed.
+ * <p>
+ * A workload is described by a spec of one or more components joined by '+', each written
+ * KIND:key=value,key=value. Sizes accept the K, M and G suffixes of the simulator.
+ * <ul>
+ * <li>uniform:n=N - keys drawn uniformly from [0,N)</li>
+ * <li>zipf:n=N,s=S - key k drawn with probability proportional to 1/(k+1)^S (S &gt; 0, default 0.99)</li>
+ * <li>scan - keys 0, 1, 2, ... never repeating</li>
+ * <li>loop:n=N - keys 0 to N-1, over and over</li>
+ * <li>hotset:n=N,hot=H,p=P,period=T - a fraction P (default 0.9) of accesses go to a hot set of H keys,
+ *     the rest are uniform over [0,N); every T accesses (default 100K) the hot set moves to the next H keys</li>
+ * </ul>
+ * When several components are given, each access comes from one of them chosen at random,
+ * in proportion to their weights w (default 1). Each component has a key range of its own: the
+ * keys of component i are offset by i * 2^48, so, e.g., a scan never touches the keys of a zipf. The keys len (number of accesses, default 1M)
+ * and seed (default 1) apply to the whole workload and may be given in any component.
+ * For example: zipf:n=1M,s=0.8,w=9+scan:w=1,len=1G,seed=7
+ * <p>
+ * Keys become addresses written in hexadecimal, e.g. key 255 is "0xff".
+ * <p>
+ * Usage: java Workload SPEC OutputFile
+ * @author Aidan Emden
+ */
+
+public abstract class Workload implements TraceSource {
+
+	/**
+	 * The default number of accesses.
+	 */
+	public static final long DEFAULT_LENGTH = 1L << 20;
+
+	/**
+	 * The number of low key bits each component of a mixture has to itself; the component index goes above them.
+	 */
+	private static final int COMPONENT_BITS = 48;
+
+	/**
+	 * The source of randomness of this component.
+	 */
+	protected SplittableRandom random;
+
+	/**
+	 * The number of accesses left, or -1 for a component of a mixture, which does not end by itself.
+	 */
+	private long remaining;
+
+	/**
+	 * Constructor for a workload component.
+	 *
+	 * @param random the source of randomness of the component
+	 */
+	protected Workload(SplittableRandom random){
+		this.random = random;
+		this.remaining = -1;
+	}
+
+	/**
+	 * Returns the key of the next access.
+	 *
+	 * @return a non-negative key
+	 */
+	public abstract long nextKey();
+
+	/**
+	 * Returns the address of the next access.
+	 *
+	 * @return the next address, or null once the workload is exhausted
+	 */
+	@Override
+	public String next(){
+		if (remaining == 0) {
+			return null;
+		}
+		if (remaining > 0) {
+			remaining--;
+		}
+		return "0x" + Long.toHexString(nextKey());
+	}
+
+	/**
+	 * Returns the number of accesses left.
+	 *
+	 * @return the number of accesses left, or -1 if the workload does not end
+	 */
+	public long remaining(){
+		return remaining;
+	}
+
+	/**
+	 * Nothing to release; generated workloads hold no resources.
+	 */
+	@Override
+	public void close(){
+	}
+
+	/**
+	 * Builds a workload from its spec.
+	 *
+	 * @param spec the spec, e.g. "zipf:n=1M,s=0.99,len=10M"
+	 * @return the workload, positioned at its first access
+	 * @throws IllegalArgumentException if the spec is malformed
+	 */
+	public static Workload parse(String spec){
+		String[] parts = spec.split("\\+");
+		String[] kinds = new String[parts.length];
+		Params[] params = new Params[parts.length];
+		long length = DEFAULT_LENGTH;
+		long seed = 1;
+		for (int i = 0; i < parts.length; i++) {
+			int colon = parts[i].indexOf(':');
+			kinds[i] = (colon < 0 ? parts[i] : parts[i].substring(0, colon)).trim();
+			params[i] = new Params(colon < 0 ? "" : parts[i].substring(colon + 1));
+			length = params[i].getLong("len", length);
+			seed = params[i].getLong("seed", seed);
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("Workload length cannot be negative.");
+		}
+
+		SplittableRandom random = new SplittableRandom(seed);
+		Workload workload;
+		if (parts.length == 1) {
+			workload = component(kinds[0], params[0], random);
+			params[0].checkUsed();
+		}
+		else {
+			if (parts.length > (1 << (63 - COMPONENT_BITS))) {
+				throw new IllegalArgumentException("Too many workload components: " + parts.length);
+			}
+			Workload[] components = new Workload[parts.length];
+			double[] weights = new double[parts.length];
+			for (int i = 0; i < parts.length; i++) {
+				components[i] = component(kinds[i], params[i], random.split());
+				weights[i] = params[i].getDouble("w", 1);
+				if (!(weights[i] > 0)) {
+					throw new IllegalArgumentException("Weight must be positive: " + parts[i]);
+				}
+				params[i].checkUsed();
+			}
+			workload = new Mixture(random, components, weights);
+		}
+		workload.remaining = length;
+		return workload;
+	}
+
+	/**
+	 * Builds one component of a workload.
+	 *
+	 * @param kind the kind of the component
+	 * @param params the parameters of the component
+	 * @param random the source of randomness of the component
+	 * @return the component
+	 * @throws IllegalArgumentException if the kind is unknown or a parameter is invalid
+	 */
+	private static Workload component(String kind, Params params, SplittableRandom random){
+		params.getLong("len", 0);
+		params.getLong("seed", 0);
+		params.getDouble("w", 1);
+		switch (kind) {
+			case "uniform":
+				return new Uniform(random, params.getSize("n"));
+			case "zipf":
+				return new Zipf(random, params.getSize("n"), params.getDouble("s", 0.99));
+			case "scan":
+				return new Scan(random);
+			case "loop":
+				return new Loop(random, params.getSize("n"));
+			case "hotset":
+				return new HotSet(random, params.getSize("n"), params.getSize("hot"),
+					params.getDouble("p", 0.9), params.getLong("period", 100_000));
+			default:
+				throw new IllegalArgumentException("Unknown workload: " + kind);
+		}
+	}
+
+	/**
+	 * Keys drawn uniformly from [0,n).
+	 */
+	private static class Uniform extends Workload {
+
+		/**
+		 * The number of distinct keys.
+		 */
+		private long n;
+
+		/**
+		 * Constructor for a uniform component.
+		 *
+		 * @param random the source of randomness
+		 * @param n the number of distinct keys
+		 */
+		private Uniform(SplittableRandom random, long n){
+			super(random);
+			this.n = n;
+		}
+
+		@Override
+		public long nextKey(){
+			return random.nextLong(n);
+		}
+	}
+
+	/**
+	 * Keys drawn from a Zipf distribution in O(1) expected time and without tables.
+	 * Key k-1 is drawn for rank k with probability proportional to f(k) = 1/k^s. A rank is proposed by
+	 * drawing x from the continuous density f on [1/2, n+1/2] by inversion, and rounding it: rank k
+	 * is proposed with probability proportional to the integral of f over [k-1/2, k+1/2]. Since f is
+	 * convex that integral is at least f(k), so accepting k with probability f(k) over the integral
+	 * gives exactly the Zipf distribution. The integral is close to f(k) except for the first ranks,
+	 * so few proposals are rejected.
+	 */
+	private static class Zipf extends Workload {
+
+		/**
+		 * The number of distinct keys.
+		 */
+		private long n;
+
+		/**
+		 * One minus the skew, the exponent of the integral of f.
+		 */
+		private double e;
+
+		/**
+		 * F(1/2), where F is the integral of f that is 0 at 1.
+		 */
+		private double low;
+
+		/**
+		 * F(n + 1/2) - F(1/2), the total weight of the proposals.
+		 */
+		private double range;
+
+		/**
+		 * Constructor for a Zipf component.
+		 *
+		 * @param random the source of randomness
+		 * @param n the number of distinct keys
+		 * @param s the skew, positive
+		 * @throws IllegalArgumentException if s is not positive
+		 */
+		private Zipf(SplittableRandom random, long n, double s){
+			super(random);
+			if (!(s > 0)) {
+				throw new IllegalArgumentException("Zipf skew must be positive: " + s);
+			}
+			this.n = n;
+			e = 1 - s;
+			low = powerIntegral(e, Math.log(0.5));
+			range = powerIntegral(e, Math.log(n + 0.5)) - low;
+		}
+
+		@Override
+		public long nextKey(){
+			while (true) {
+				double x = inverse(low + random.nextDouble() * range);
+				long k = Math.min(Math.max((long)Math.floor(x + 0.5), 1), n);
+				//f(k) over the integral of f on [k-1/2, k+1/2], both divided by k^(1-s)
+				double half = 0.5 / k;
+				double weight = k * (powerIntegral(e, Math.log1p(half)) - powerIntegral(e, Math.log1p(-half)));
+				if (random.nextDouble() * weight <= 1) {
+					return k - 1;
+				}
+			}
+		}
+
+		/**
+		 * Returns the point x where F(x) = y.
+		 *
+		 * @param y a value of F between F(1/2) and F(n + 1/2)
+		 * @return x
+		 */
+		private double inverse(double y){
+			if (e == 0) {
+				return Math.exp(y);
+			}
+			//F(x) = (x^e - 1)/e, so x^e = 1 + e*y, which stays positive
+			return Math.exp(Math.log1p(Math.max(e * y, -1 + 1e-15)) / e);
+		}
+
+		/**
+		 * Returns (x^e - 1)/e for x = exp(logX), i.e. the integral of 1/t^(1-e) from 1 to x,
+		 * which is log x when e is 0. It stays accurate when e*logX is close to 0.
+		 *
+		 * @param e the exponent
+		 * @param logX the log of the upper bound
+		 * @return the integral
+		 */
+		private static double powerIntegral(double e, double logX){
+			if (e == 0) {
+				return logX;
+			}
+			return Math.expm1(e * logX) / e;
+		}
+	}
+
+	/**
+	 * Keys 0, 1, 2, ... never repeating.
+	 */
+	private static class Scan extends Workload {
+
+		/**
+		 * The next key.
+		 */
+		private long key;
+
+		/**
+		 * Constructor for a scan component.
+		 *
+		 * @param random the source of randomness (unused)
+		 */
+		private Scan(SplittableRandom random){
+			super(random);
+			key = 0;
+		}
+
+		@Override
+		public long nextKey(){
+			return key++ & Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Keys 0 to n-1, over and over.
+	 */
+	private static class Loop extends Workload {
+
+		/**
+		 * The number of distinct keys.
+		 */
+		private long n;
+
+		/**
+		 * The next key.
+		 */
+		private long key;
+
+		/**
+		 * Constructor for a loop component.
+		 *
+		 * @param random the source of randomness (unused)
+		 * @param n the number of distinct keys
+		 */
+		private Loop(SplittableRandom random, long n){
+			super(random);
+			this.n = n;
+			key = 0;
+		}
+
+		@Override
+		public long nextKey(){
+			long k = key;
+			key = (key + 1 == n) ? 0 : key + 1;
+			return k;
+		}
+	}
+
+	/**
+	 * Mostly accesses to a small hot set that moves over time, plus uniform background accesses.
+	 */
+	private static class HotSet extends Workload {
+
+		/**
+		 * The number of distinct keys.
+		 */
+		private long n;
+
+		/**
+		 * The size of the hot set.
+		 */
+		private long hot;
+
+		/**
+		 * The probability that an access goes to the hot set.
+		 */
+		private double p;
+
+		/**
+		 * The number of accesses between two moves of the hot set.
+		 */
+		private long period;
+
+		/**
+		 * The first key of the hot set.
+		 */
+		private long offset;
+
+		/**
+		 * The number of accesses since the hot set last moved.
+		 */
+		private long age;
+
+		/**
+		 * Constructor for a hot-set component.
+		 *
+		 * @param random the source of randomness
+		 * @param n the number of distinct keys
+		 * @param hot the size of the hot set
+		 * @param p the probability that an access goes to the hot set
+		 * @param period the number of accesses between two moves of the hot set
+		 * @throws IllegalArgumentException if a parameter is out of range
+		 */
+		private HotSet(SplittableRandom random, long n, long hot, double p, long period){
+			super(random);
+			if (hot > n) {
+				throw new IllegalArgumentException("Hot set cannot be larger than n.");
+			}
+			if (!(p >= 0 && p <= 1)) {
+				throw new IllegalArgumentException("Hot probability must be in [0,1]: " + p);
+			}
+			if (period <= 0) {
+				throw new IllegalArgumentException("Hot set period must be positive.");
+			}
+			this.n = n;
+			this.hot = hot;
+			this.p = p;
+			this.period = period;
+			offset = 0;
+			age = 0;
+		}
+
+		@Override
+		public long nextKey(){
+			if (age == period) {
+				offset = (offset + hot) % n;
+				age = 0;
+			}
+			age++;
+			if (random.nextDouble() < p) {
+				return (offset + random.nextLong(hot)) % n;
+			}
+			return random.nextLong(n);
+		}
+	}
+
+	/**
+	 * Each access comes from one of several components, chosen at random by weight.
+	 * Component i draws from its own key range, [i * 2^48, (i+1) * 2^48).
+	 */
+	private static class Mixture extends Workload {
+
+		/**
+		 * The components of the mixture.
+		 */
+		private Workload[] components;
+
+		/**
+		 * The cumulative weights of the components, normalised to end at 1.
+		 */
+		private double[] cumulative;
+
+		/**
+		 * Constructor for a mixture.
+		 *
+		 * @param random the source of randomness choosing the components
+		 * @param components the components of the mixture
+		 * @param weights the positive weight of each component
+		 */
+		private Mixture(SplittableRandom random, Workload[] components, double[] weights){
+			super(random);
+			this.components = components;
+			cumulative = new double[weights.length];
+			double total = 0;
+			for (double weight : weights) {
+				total += weight;
+			}
+			double sum = 0;
+			for (int i = 0; i < weights.length; i++) {
+				sum += weights[i];
+				cumulative[i] = sum / total;
+			}
+		}
+
+		@Override
+		public long nextKey(){
+			double u = random.nextDouble();
+			int i = 0;
+			while (i < cumulative.length - 1 && u >= cumulative[i]) {
+				i++;
+			}
+			long key = components[i].nextKey() & ((1L << COMPONENT_BITS) - 1);
+			return ((long)i << COMPONENT_BITS) | key;
+		}
+	}
+
+	/**
+	 * The key=value parameters of one component.
+	 */
+	private static class Params {
+
+		/**
+		 * The parameter keys.
+		 */
+		private List<String> keys = new ArrayList<>();
+
+		/**
+		 * The parameter values.
+		 */
+		private List<String> values = new ArrayList<>();
+
+		/**
+		 * Whether each parameter was read.
+		 */
+		private List<Boolean> used = new ArrayList<>();
+
+		/**
+		 * Constructor parsing a comma-separated list of key=value pairs.
+		 *
+		 * @param text the list
+		 * @throws IllegalArgumentException if a pair is malformed
+		 */
+		private Params(String text){
+			for (String pair : text.split(",")) {
+				pair = pair.trim();
+				if (pair.isEmpty()) {
+					continue;
+				}
+				int eq = pair.indexOf('=');
+				if (eq <= 0) {
+					throw new IllegalArgumentException("Expected key=value: " + pair);
+				}
+				keys.add(pair.substring(0, eq).trim());
+				values.add(pair.substring(eq + 1).trim());
+				used.add(false);
+			}
+		}
+
+		/**
+		 * Returns the raw value of a parameter and marks it used.
+		 *
+		 * @param key the key
+		 * @return the value, or null if absent
+		 */
+		private String get(String key){
+			int i = keys.indexOf(key);
+			if (i < 0) {
+				return null;
+			}
+			used.set(i, true);
+			return values.get(i);
+		}
+
+		/**
+		 * Returns a required positive size parameter.
+		 *
+		 * @param key the key
+		 * @return the size
+		 * @throws IllegalArgumentException if the parameter is missing or not a positive size
+		 */
+		private long getSize(String key){
+			String value = get(key);
+			if (value == null) {
+				throw new IllegalArgumentException("Missing workload parameter: " + key);
+			}
+			return SimulatorOptions.parseSize(value);
+		}
+
+		/**
+		 * Returns a long parameter, with K, M and G suffixes allowed.
+		 *
+		 * @param key the key
+		 * @param fallback the value if absent
+		 * @return the value
+		 * @throws IllegalArgumentException if the value is not a number
+		 */
+		private long getLong(String key, long fallback){
+			String value = get(key);
+			if (value == null) {
+				return fallback;
+			}
+			long unit = 1;
+			char last = Character.toUpperCase(value.charAt(value.length() - 1));
+			if (last == 'K' || last == 'M' || last == 'G') {
+				unit = 1L << (last == 'K' ? 10 : last == 'M' ? 20 : 30);
+				value = value.substring(0, value.length() - 1);
+			}
+			try {
+				return Long.parseLong(value) * unit;
+			}
+			catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Not a number: " + key + "=" + value);
+			}
+		}
+
+		/**
+		 * Returns a double parameter.
+		 *
+		 * @param key the key
+		 * @param fallback the value if absent
+		 * @return the value
+		 * @throws IllegalArgumentException if the value is not a number
+		 */
+		private double getDouble(String key, double fallback){
+			String value = get(key);
+			if (value == null) {
+				return fallback;
+			}
+			try {
+				return Double.parseDouble(value);
+			}
+			catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Not a number: " + key + "=" + value);
+			}
+		}
+
+		/**
+		 * Rejects parameters that no component understood.
+		 *
+		 * @throws IllegalArgumentException if a parameter was never read
+		 */
+		private void checkUsed(){
+			for (int i = 0; i < keys.size(); i++) {
+				if (!used.get(i)) {
+					throw new IllegalArgumentException("Unknown workload parameter: " + keys.get(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests the generators, printing one line per check that passes.
+	 */
+	private static void test() {
+
+		//the same seed gives the same sequence
+		Workload a = parse("zipf:n=1K,len=1000,seed=3");
+		Workload b = parse("zipf:n=1K,len=1000,seed=3");
+		boolean same = true;
+		String addr;
+		while ((addr = a.next()) != null && same) {
+			same = addr.equals(b.next());
+		}
+		if (same && b.next() == null) {
+			System.out.println("Yay1");
+		}
+
+		//a scan never repeats and stays out of the keys of the other components of its mixture
+		Workload mixture = parse("zipf:n=100,w=1+scan:w=1+loop:n=10,len=30000");
+		HashSet<Long> scanned = new HashSet<>();
+		boolean disjoint = true;
+		int[] seen = new int[3];
+		while ((addr = mixture.next()) != null && disjoint) {
+			long key = Long.parseLong(addr.substring(2), 16);
+			int component = (int)(key >>> COMPONENT_BITS);
+			long low = key & ((1L << COMPONENT_BITS) - 1);
+			seen[component]++;
+			if (component == 0) {
+				disjoint = low < 100;
+			}
+			else if (component == 1) {
+				disjoint = scanned.add(low);
+			}
+			else {
+				disjoint = component == 2 && low < 10;
+			}
+		}
+		if (disjoint && seen[0] > 0 && seen[1] > 0 && seen[2] > 0) {
+			System.out.println("Yay2");
+		}
+
+		//a single component keeps the plain key range
+		Workload scan = parse("scan:len=3");
+		if ("0x0".equals(scan.next()) && "0x1".equals(scan.next()) && "0x2".equals(scan.next()) && scan.next() == null) {
+			System.out.println("Yay3");
+		}
+
+		//zipf keys follow 1/(k+1)^s, for skews below, at and above 1
+		boolean close = true;
+		for (double s : new double[]{0.5, 1, 2}) {
+			int n = 8;
+			int samples = 200000;
+			double[] expected = new double[n];
+			double total = 0;
+			for (int k = 0; k < n; k++) {
+				expected[k] = Math.pow(k + 1, -s);
+				total += expected[k];
+			}
+			int[] drawn = new int[n];
+			Workload zipf = parse("zipf:n=" + n + ",s=" + s + ",len=" + samples);
+			while ((addr = zipf.next()) != null) {
+				drawn[Integer.parseInt(addr.substring(2), 16)]++;
+			}
+			for (int k = 0; k < n; k++) {
+				close &= Math.abs((double)drawn[k] / samples - expected[k] / total) < 0.005;
+			}
+		}
+		if (close) {
+			System.out.println("Yay4");
+		}
+	}
+
+	/**
+	 * Writes the workload given on the command line to a text trace, one address per line.
+	 *
+	 * @param args the spec and the file to write
+	 */
+	public static void main(String[] args) {
+		if (args.length == 1 && args[0].equals("-t")) {
+			test();
+			return;
+		}
+		if (args.length != 2) {
+			System.out.println("Usage: java Workload SPEC OutputFile (or java Workload -t to test the generators)");
+			return;
+		}
+		try (Workload workload = parse(args[0]);
+				Writer out = new BufferedWriter(Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8), 1 << 16)) {
+			String addr;
+			while ((addr = workload.next()) != null) {
+				out.write(addr);
+				out.write('\n');
+			}
+		}
+		catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
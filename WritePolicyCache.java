@@ -0,0 +1,366 @@
+import java.util.LinkedHashSet;
+
+/**
+ * Cache wrapper that models stores as well as loads, on top of any InvalidatableCache.
+ * Each access token may carry an operation prefix, "R:" for a read or "W:" for a write
+ * (e.g. "W:0x7ffc10"); a token without a prefix is a read.
+ * Writes follow two independent options:
+ * <ul>
+ * <li>write-back keeps a dirty bit per entry and writes the entry to memory only when it is evicted;
+ *     write-through writes every store to memory at once, so no entry is ever dirty</li>
+ * <li>write-allocate fills the cache on a write miss; no-write-allocate sends the store to memory
+ *     and leaves the cache untouched</li>
+ * </ul>
+ * The evicted entry is learnt from nextToReplace, which InvalidatableCaches report exactly.
+ * @author Aidan Emden
+ */
+
+public class WritePolicyCache implements CountingCache {
+
+	/**
+	 * The cache holding the entries.
+	 */
+	private InvalidatableCache cache;
+
+	/**
+	 * Whether stores are written to memory on eviction (true) or at once (false).
+	 */
+	private boolean writeBack;
+
+	/**
+	 * Whether a write miss fills the cache.
+	 */
+	private boolean writeAllocate;
+
+	/**
+	 * The entries written since they were filled and not yet written back, in the order they became dirty.
+	 */
+	private LinkedHashSet<String> dirty;
+
+	/**
+	 * The number of read accesses.
+	 */
+	private long reads;
+
+	/**
+	 * The number of read accesses that hit.
+	 */
+	private long readHits;
+
+	/**
+	 * The number of write accesses.
+	 */
+	private long writes;
+
+	/**
+	 * The number of write accesses that hit.
+	 */
+	private long writeHits;
+
+	/**
+	 * The number of entries fetched from memory to fill the cache.
+	 */
+	private long fills;
+
+	/**
+	 * The number of entries evicted.
+	 */
+	private long evictions;
+
+	/**
+	 * The number of dirty entries written to memory on eviction.
+	 */
+	private long writeBacks;
+
+	/**
+	 * The number of stores written to memory at once, by write-through or on a no-write-allocate miss.
+	 */
+	private long writeThroughs;
+
+	/**
+	 * Constructor for a write-modelling wrapper around an empty cache.
+	 *
+	 * @param cache the empty cache to hold the entries
+	 * @param writeBack true for write-back, false for write-through
+	 * @param writeAllocate true for write-allocate, false for no-write-allocate
+	 * @throws IllegalArgumentException if cache is null
+	 */
+	public WritePolicyCache(InvalidatableCache cache, boolean writeBack, boolean writeAllocate){
+		if (cache == null) {
+			throw new IllegalArgumentException("Cache cannot be null.");
+		}
+		this.cache = cache;
+		this.writeBack = writeBack;
+		this.writeAllocate = writeAllocate;
+		dirty = new LinkedHashSet<>();
+	}
+
+	//O(1)
+
+	/**
+	 * Returns true if the cache is full; false otherwise.
+	 *
+	 * @return true if the cache is full; false otherwise
+	 */
+	public boolean isFull(){
+		return cache.isFull();
+	}
+
+	//O(1)
+
+	/**
+	 * Reports max number of items allowed in cache.
+	 *
+	 * @return max number of items allowed in cache
+	 */
+	public int capacity(){
+		return cache.capacity();
+	}
+
+	//O(1)
+
+	/**
+	 * Reports the number of items stored in cache.
+	 *
+	 * @return number of items stored in cache
+	 */
+	public int size(){
+		return cache.size();
+	}
+
+	/**
+	 * Return item that will be evicted if the next access is a miss that fills the cache.
+	 *
+	 * @return item that will be evicted if the next access is a miss. Return null if no item will be evicted
+	 */
+	public String nextToReplace(){
+		return cache.nextToReplace();
+	}
+
+	/**
+	 * Determine whether the access given by a token is a hit or miss.
+	 *
+	 * @param token the next access: an address, optionally prefixed by "R:" (read) or "W:" (write)
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if token is null
+	 */
+	public boolean access(String token){
+		if (token == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		return access(address(token), isWrite(token));
+	}
+
+	/**
+	 * Determine whether a read or a write of addr is a hit or miss.
+	 *
+	 * @param addr the address requested by the next access
+	 * @param write true for a write, false for a read
+	 * @return true if the access is a cache hit, false if it is a cache miss
+	 * @throws IllegalArgumentException if addr is null
+	 */
+	public boolean access(String addr, boolean write){
+		if (addr == null) {
+			throw new IllegalArgumentException("Address cannot be null.");
+		}
+		if (!write) {
+			reads++;
+		} else {
+			writes++;
+			if (!writeBack) {
+				writeThroughs++;
+			}
+			if (!writeAllocate && !cache.contains(addr)) {
+				//the store goes around the cache
+				if (writeBack) {
+					writeThroughs++;
+				}
+				return false;
+			}
+		}
+
+		String victim = cache.isFull() ? cache.nextToReplace() : null;
+		boolean hit = cache.access(addr);
+		if (hit) {
+			if (write) {
+				writeHits++;
+			} else {
+				readHits++;
+			}
+		} else {
+			fills++;
+			if (victim != null) {
+				evictions++;
+				if (dirty.remove(victim)) {
+					writeBacks++;
+				}
+			}
+		}
+		if (write && writeBack) {
+			dirty.add(addr);
+		}
+		return hit;
+	}
+
+	/**
+	 * Returns true if a token is a write.
+	 *
+	 * @param token an access token
+	 * @return true if token starts with "W:" or "w:"; false otherwise
+	 */
+	public static boolean isWrite(String token){
+		return token.length() > 1 && token.charAt(1) == ':' && (token.charAt(0) == 'W' || token.charAt(0) == 'w');
+	}
+
+	/**
+	 * Strips the operation prefix of a token.
+	 *
+	 * @param token an access token
+	 * @return the address of the access
+	 */
+	public static String address(String token){
+		if (token.length() > 1 && token.charAt(1) == ':') {
+			char op = Character.toUpperCase(token.charAt(0));
+			if (op == 'R' || op == 'W') {
+				return token.substring(2);
+			}
+		}
+		return token;
+	}
+
+	/**
+	 * Returns true if addr is in cache and written since it was filled.
+	 *
+	 * @param addr the address
+	 * @return true if the entry of addr is dirty
+	 */
+	public boolean isDirty(String addr){
+		return dirty.contains(addr);
+	}
+
+	/**
+	 * Returns the number of read accesses.
+	 *
+	 * @return the number of reads
+	 */
+	public long getReads(){
+		return reads;
+	}
+
+	/**
+	 * Returns the number of read accesses that hit.
+	 *
+	 * @return the number of read hits
+	 */
+	public long getReadHits(){
+		return readHits;
+	}
+
+	/**
+	 * Returns the number of write accesses.
+	 *
+	 * @return the number of writes
+	 */
+	public long getWrites(){
+		return writes;
+	}
+
+	/**
+	 * Returns the number of write accesses that hit.
+	 *
+	 * @return the number of write hits
+	 */
+	public long getWriteHits(){
+		return writeHits;
+	}
+
+	/**
+	 * Returns the number of entries fetched from memory to fill the cache.
+	 *
+	 * @return the number of memory reads
+	 */
+	public long getFills(){
+		return fills;
+	}
+
+	/**
+	 * Returns the number of entries evicted.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictions(){
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of dirty entries written to memory on eviction.
+	 *
+	 * @return the number of write-backs
+	 */
+	public long getWriteBacks(){
+		return writeBacks;
+	}
+
+	/**
+	 * Returns the number of memory writes: write-backs plus stores written to memory at once.
+	 *
+	 * @return the number of memory writes
+	 */
+	public long getMemoryWrites(){
+		return writeBacks + writeThroughs;
+	}
+
+	/**
+	 * Reports the number of entries stored in cache since it was created, i.e. the memory reads.
+	 *
+	 * @return the number of insertions
+	 */
+	public long insertions(){
+		return fills;
+	}
+
+	/**
+	 * Reports the number of entries evicted from cache since it was created.
+	 *
+	 * @return the number of evictions
+	 */
+	public long evictions(){
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of dirty entries still in cache, which would be written back on a flush.
+	 *
+	 * @return the number of dirty entries
+	 */
+	public int getDirtyCount(){
+		return dirty.size();
+	}
+
+	/**
+	 * Returns the write traffic of the run so far.
+	 *
+	 * @return one line per counter
+	 */
+	public String report(){
+		return String.format("Write policy: %s, %s%nReads: %d (hits %d)%nWrites: %d (hits %d)%n"
+			+ "Memory reads: %d%nEvictions: %d%nWrite-backs: %d%nMemory writes: %d%nDirty entries left: %d",
+			writeBack ? "write-back" : "write-through", writeAllocate ? "write-allocate" : "no-write-allocate",
+			reads, readHits, writes, writeHits, fills, evictions, writeBacks, getMemoryWrites(), dirty.size());
+	}
+
+	//O(n) where n is the number of items in cache
+
+	/**
+	 * Return a string representing all items in cache, followed by the dirty ones.
+	 *
+	 * @return a string representing all items in cache
+	 */
+	@Override
+	public String toString(){
+		if (dirty.isEmpty()) {
+			return cache.toString();
+		}
+		return cache + " | dirty: " + String.join(" ", dirty);
+	}
+}